@@ -0,0 +1,48 @@
+/**
+ * All entities sharing one component mask, packed into a list of chunks.
+ * Every chunk but the last is full, so removal swaps the very last entity
+ * into the hole and nothing ever needs compacting.
+ */
+public class Archetype {
+    final int mask;
+    Chunk[] chunks = new Chunk[1];
+    int chunkCount = 0;
+    int size = 0;
+
+    Archetype(int mask) {
+        this.mask = mask;
+    }
+
+    // Chunk that the next added entity lands in (allocating one if needed)
+    Chunk tail() {
+        if (chunkCount == 0 || chunks[chunkCount - 1].count == Chunk.CAPACITY) {
+            if (chunkCount == chunks.length) {
+                Chunk[] grown = new Chunk[chunks.length * 2];
+                System.arraycopy(chunks, 0, grown, 0, chunkCount);
+                chunks = grown;
+            }
+            // chunks emptied by clear() are kept and reused
+            if (chunks[chunkCount] == null) chunks[chunkCount] = new Chunk(mask);
+            chunkCount++;
+        }
+        return chunks[chunkCount - 1];
+    }
+
+    // Hold exactly 'n' entities, chunks full but the last (row contents are the caller's to fill)
+    void resize(int n) {
+        clear();
+        while (size < n) {
+            Chunk c = tail();
+            int add = Math.min(n - size, Chunk.CAPACITY - c.count);
+            c.count += add;
+            size += add;
+        }
+    }
+
+    // Drop every entity but keep the allocated chunks
+    void clear() {
+        for (int c = 0; c < chunkCount; c++) chunks[c].count = 0;
+        chunkCount = 0;
+        size = 0;
+    }
+}
@@ -0,0 +1,200 @@
+import java.util.Arrays;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+
+/**
+ * Software mixer for short sound effects.
+ *
+ * Effects are mono 16-bit PCM arrays decoded once up front. A fixed set of
+ * voices plays them; when all voices are busy a new sound steals the
+ * lowest-priority (then oldest) voice, or is dropped if everything playing
+ * matters more. render() mixes into a plain byte[] (44.1 kHz, 16-bit
+ * stereo, little-endian), so it runs fine with no audio device at all.
+ * start() adds a thread that feeds render() output to a SourceDataLine.
+ *
+ * play() may be called from any one thread (the game thread); requests go
+ * through a small ring and are picked up at the start of the next render(),
+ * so the voices themselves are only ever touched by the mixing thread.
+ */
+public class AudioMixer {
+    public static final float SAMPLE_RATE = 44100f;
+    public static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+
+    private final short[][] effects;
+
+    // voice state, owned by the mixing thread
+    private final int[] voiceEffect;   // -1 = free
+    private final int[] voicePos;
+    private final int[] voicePriority;
+    private final long[] voiceStarted;
+    private final int[] voiceGainL, voiceGainR; // 0..256
+    private long started = 0;
+
+    // play requests: single producer, single consumer
+    private static final int QUEUE = 64;
+    private final int[] reqEffect = new int[QUEUE], reqPriority = new int[QUEUE];
+    private final int[] reqGainL = new int[QUEUE], reqGainR = new int[QUEUE];
+    private volatile int reqHead = 0; // written by play()
+    private volatile int reqTail = 0; // written by render()
+
+    private int[] mixL = new int[0], mixR = new int[0];
+
+    private volatile int activeVoices = 0;
+    private volatile long stolen = 0, dropped = 0; // mixing thread
+    private volatile long queueFull = 0;           // play() thread
+
+    private Thread thread;
+    private volatile boolean running;
+
+    public AudioMixer(short[][] effects, int voices) {
+        this.effects = effects;
+        voiceEffect = new int[voices];
+        voicePos = new int[voices];
+        voicePriority = new int[voices];
+        voiceStarted = new long[voices];
+        voiceGainL = new int[voices];
+        voiceGainR = new int[voices];
+        Arrays.fill(voiceEffect, -1);
+    }
+
+    // gain 0..1, pan -1 (left) .. 1 (right); higher priority wins voice stealing
+    public void play(int effect, int priority, double gain, double pan) {
+        int head = reqHead;
+        if (head - reqTail >= QUEUE) {
+            queueFull++;
+            return;
+        }
+        int i = head & (QUEUE - 1);
+        reqEffect[i] = effect;
+        reqPriority[i] = priority;
+        double p = Math.max(-1, Math.min(1, pan));
+        reqGainL[i] = (int) (256 * gain * Math.min(1, 1 - p));
+        reqGainR[i] = (int) (256 * gain * Math.min(1, 1 + p));
+        reqHead = head + 1;
+    }
+
+    // Mix 'frames' stereo frames into out (4 bytes per frame)
+    public void render(byte[] out, int frames) {
+        takeRequests();
+
+        if (mixL.length < frames) {
+            mixL = new int[frames];
+            mixR = new int[frames];
+        }
+        int[] l = mixL, r = mixR;
+        Arrays.fill(l, 0, frames, 0);
+        Arrays.fill(r, 0, frames, 0);
+
+        int active = 0;
+        for (int v = 0; v < voiceEffect.length; v++) {
+            if (voiceEffect[v] < 0) continue;
+            short[] pcm = effects[voiceEffect[v]];
+            int pos = voicePos[v];
+            int n = Math.min(frames, pcm.length - pos);
+            int gl = voiceGainL[v], gr = voiceGainR[v];
+            for (int f = 0; f < n; f++) {
+                int s = pcm[pos + f];
+                l[f] += (s * gl) >> 8;
+                r[f] += (s * gr) >> 8;
+            }
+            voicePos[v] = pos + n;
+            if (voicePos[v] >= pcm.length) {
+                voiceEffect[v] = -1;
+            } else {
+                active++;
+            }
+        }
+        activeVoices = active;
+
+        for (int f = 0, b = 0; f < frames; f++) {
+            int sl = Math.max(-32768, Math.min(32767, l[f]));
+            int sr = Math.max(-32768, Math.min(32767, r[f]));
+            out[b++] = (byte) sl;
+            out[b++] = (byte) (sl >> 8);
+            out[b++] = (byte) sr;
+            out[b++] = (byte) (sr >> 8);
+        }
+    }
+
+    private void takeRequests() {
+        int tail = reqTail, head = reqHead;
+        for (; tail != head; tail++) {
+            int i = tail & (QUEUE - 1);
+            int v = pickVoice(reqPriority[i]);
+            if (v < 0) {
+                dropped++;
+                continue;
+            }
+            voiceEffect[v] = reqEffect[i];
+            voicePos[v] = 0;
+            voicePriority[v] = reqPriority[i];
+            voiceStarted[v] = started++;
+            voiceGainL[v] = reqGainL[i];
+            voiceGainR[v] = reqGainR[i];
+        }
+        reqTail = tail;
+    }
+
+    // Free voice if there is one, else the weakest voice not above 'priority'
+    private int pickVoice(int priority) {
+        int victim = -1;
+        for (int v = 0; v < voiceEffect.length; v++) {
+            if (voiceEffect[v] < 0) return v;
+            if (voicePriority[v] > priority) continue;
+            if (victim < 0 || voicePriority[v] < voicePriority[victim]
+                    || (voicePriority[v] == voicePriority[victim] && voiceStarted[v] < voiceStarted[victim])) {
+                victim = v;
+            }
+        }
+        if (victim >= 0) stolen++;
+        return victim;
+    }
+
+    // Open the default output line and mix on a dedicated thread.
+    // bufferFrames sets the latency: 512 frames is ~12 ms at 44.1 kHz.
+    public boolean start(int bufferFrames) {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            // twice the chunk size: one chunk playing while the next one is mixed
+            line.open(FORMAT, bufferFrames * 4 * 2);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No audio output available, sound disabled: " + e.getMessage());
+            return false;
+        }
+        line.start();
+        running = true;
+        thread = new Thread(() -> {
+            byte[] buffer = new byte[bufferFrames * 4];
+            while (running) {
+                render(buffer, bufferFrames);
+                line.write(buffer, 0, buffer.length); // blocks until there is room: this paces us
+            }
+            line.drain();
+            line.close();
+        }, "audio-mixer");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MAX_PRIORITY);
+        thread.start();
+        return true;
+    }
+
+    public void stop() {
+        running = false;
+    }
+
+    public int activeVoices() {
+        return activeVoices;
+    }
+
+    public long stolen() {
+        return stolen;
+    }
+
+    // sounds that never played: outranked by every busy voice, or request queue full
+    public long dropped() {
+        return dropped + queueFull;
+    }
+}
@@ -0,0 +1,34 @@
+/**
+ * Mixer cost with every voice busy, rendered into a byte[] (no audio device
+ * needed). Reports how many times faster than real time the mix runs.
+ *
+ *   java AudioMixerBenchmark [voices] [bufferFrames] [seconds]
+ */
+public class AudioMixerBenchmark {
+
+    public static void main(String[] args) {
+        int voices = args.length > 0 ? Integer.parseInt(args[0]) : SoundManager.VOICES;
+        int bufferFrames = args.length > 1 ? Integer.parseInt(args[1]) : SoundManager.BUFFER_FRAMES;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 60;
+
+        short[][] effects = new short[SoundManager.FILES.length][];
+        for (int i = 0; i < effects.length; i++) effects[i] = SoundManager.synthesize(i);
+        AudioMixer mixer = new AudioMixer(effects, voices);
+        byte[] out = new byte[bufferFrames * 4];
+        int buffers = (int) (seconds * AudioMixer.SAMPLE_RATE / bufferFrames);
+
+        System.out.printf("%d voices, %d-frame buffers, %d s of audio%n", voices, bufferFrames, seconds);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            long start = System.nanoTime();
+            for (int b = 0; b < buffers; b++) {
+                // keep every voice busy and force some stealing
+                for (int v = 0; v < voices / 4 + 1; v++) mixer.play(v % effects.length, v % 3, 0.7, (v % 5 - 2) / 2.0);
+                mixer.render(out, bufferFrames);
+            }
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("round %d: %.1f ns/frame, %.0fx real time, %d active, %d stolen, %d dropped%n",
+                    round, elapsed / (double) buffers / bufferFrames, seconds * 1e9 / elapsed,
+                    mixer.activeVoices(), mixer.stolen(), mixer.dropped());
+        }
+    }
+}
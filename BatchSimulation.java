@@ -0,0 +1,214 @@
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Headless batch runner for balancing and soak tests.
+ * Plays thousands of independent bot-driven games across all cores and
+ * prints survival time, score distribution and throughput.
+ *
+ *   java -Djava.awt.headless=true BatchSimulation --games 5000 --enemy-speed 2.5
+ *   java -Djava.awt.headless=true BatchSimulation --scaling
+ */
+public class BatchSimulation {
+    static final int TICKS_PER_SECOND = 60;
+
+    int games = 1000;
+    int threads = Runtime.getRuntime().availableProcessors();
+    int maxTicks = TICKS_PER_SECOND * 60 * 10; // 10 minute cap per game
+    long seed = 1;
+    int fireEvery = 30;
+    double spawnChance = 0.02;
+    double enemySpeed = 2.0;
+    int contactDamage = 20;
+    int killScore = 10;
+    boolean scaling = false;
+    boolean boxCollision = false; // old unrotated bounding-box hits, for comparison
+    boolean flocking = true;
+    double flockRadius = 40;
+    boolean fixedPoint = false;
+
+    // per-game results, indexed by game number
+    int[] survivalTicks;
+    int[] scores;
+    long[] botNanos;
+    double[] accuracy;
+    int[] hitsTaken;
+
+    public static void main(String[] args) throws InterruptedException {
+        BatchSimulation sim = new BatchSimulation();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games":        sim.games = Integer.parseInt(args[++i]); break;
+                case "--threads":      sim.threads = Integer.parseInt(args[++i]); break;
+                case "--max-ticks":    sim.maxTicks = Integer.parseInt(args[++i]); break;
+                case "--seed":         sim.seed = Long.parseLong(args[++i]); break;
+                case "--fire-every":   sim.fireEvery = Integer.parseInt(args[++i]); break;
+                case "--spawn-chance": sim.spawnChance = Double.parseDouble(args[++i]); break;
+                case "--enemy-speed":  sim.enemySpeed = Double.parseDouble(args[++i]); break;
+                case "--damage":       sim.contactDamage = Integer.parseInt(args[++i]); break;
+                case "--kill-score":   sim.killScore = Integer.parseInt(args[++i]); break;
+                case "--scaling":      sim.scaling = true; break;
+                case "--box-collision": sim.boxCollision = true; break;
+                case "--no-flocking":  sim.flocking = false; break;
+                case "--flock-radius": sim.flockRadius = Double.parseDouble(args[++i]); break;
+                case "--fixed-point":  sim.fixedPoint = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    usage();
+            }
+        }
+        if (sim.games < 1 || sim.threads < 1) {
+            System.err.println("--games and --threads must be at least 1");
+            usage();
+        }
+
+        if (sim.scaling) {
+            sim.scalingReport();
+        } else {
+            long nanos = sim.run(sim.threads);
+            sim.report(nanos);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Options: --games N --threads N --max-ticks N --seed N --fire-every N"
+                + " --spawn-chance P --enemy-speed S --damage N --kill-score N --scaling --box-collision"
+                + " --no-flocking --flock-radius R --fixed-point");
+        System.exit(1);
+    }
+
+    // Play every game once on a fixed pool; returns wall time in nanos
+    long run(int threadCount) throws InterruptedException {
+        survivalTicks = new int[games];
+        scores = new int[games];
+        botNanos = new long[games];
+        accuracy = new double[games];
+        hitsTaken = new int[games];
+        AtomicInteger nextGame = new AtomicInteger();
+
+        ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+        long start = System.nanoTime();
+        for (int t = 0; t < threadCount; t++) {
+            // workers pull game numbers until none are left, so slow games don't leave cores idle
+            pool.execute(() -> {
+                int g;
+                while ((g = nextGame.getAndIncrement()) < games) {
+                    play(g);
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(1, TimeUnit.DAYS);
+        return System.nanoTime() - start;
+    }
+
+    void play(int game) {
+        GameWorld world = new GameWorld(seed * 0x9E3779B97F4A7C15L + game);
+        world.spawnChance = spawnChance;
+        world.enemySpeed = enemySpeed;
+        world.contactDamage = contactDamage;
+        world.killScore = killScore;
+        world.pixelCollision = !boxCollision;
+        world.flocking = flocking;
+        world.flock.radius = flockRadius;
+        world.fixedPoint = fixedPoint;
+        GameStats stats = new GameStats();
+        world.events.subscribe(stats);
+
+        BotController bot = new NearestThreatBot(fireEvery);
+        InputFrame input = new InputFrame();
+        long botTime = 0;
+        while (!world.gameOver && world.ticks < maxTicks) {
+            long t0 = System.nanoTime();
+            bot.control(world, input);
+            botTime += System.nanoTime() - t0;
+            world.step(input);
+        }
+        survivalTicks[game] = (int) world.ticks;
+        scores[game] = world.score;
+        botNanos[game] = botTime;
+        accuracy[game] = stats.accuracy();
+        hitsTaken[game] = stats.hitsTaken;
+    }
+
+    void report(long nanos) {
+        double seconds = nanos / 1e9;
+        long totalTicks = 0;
+        int capped = 0;
+        for (int t : survivalTicks) {
+            totalTicks += t;
+            if (t >= maxTicks) capped++;
+        }
+
+        System.out.printf("Games: %d on %d threads in %.2f s%n", games, threads, seconds);
+        System.out.printf("Throughput: %.1f games/s, %.0f ticks/s%n", games / seconds, totalTicks / seconds);
+        long totalBotNanos = 0;
+        for (long n : botNanos) totalBotNanos += n;
+        System.out.printf("Bot: %.0f ns/tick (includes timer overhead)%n", totalBotNanos / (double) totalTicks);
+        System.out.printf("Balance: spawn %.3f, enemy speed %.2f, damage %d, kill score %d%n",
+                spawnChance, enemySpeed, contactDamage, killScore);
+        System.out.println();
+
+        int[] survival = survivalTicks.clone();
+        Arrays.sort(survival);
+        System.out.printf("Survival (s): mean %.1f  p10 %.1f  p50 %.1f  p90 %.1f  max %.1f  (%d hit the %d s cap)%n",
+                mean(survival) / TICKS_PER_SECOND,
+                percentile(survival, 10) / (double) TICKS_PER_SECOND,
+                percentile(survival, 50) / (double) TICKS_PER_SECOND,
+                percentile(survival, 90) / (double) TICKS_PER_SECOND,
+                survival[games - 1] / (double) TICKS_PER_SECOND,
+                capped, maxTicks / TICKS_PER_SECOND);
+
+        int[] sorted = scores.clone();
+        Arrays.sort(sorted);
+        System.out.printf("Score: mean %.1f  p10 %d  p50 %d  p90 %d  max %d%n",
+                mean(sorted), percentile(sorted, 10), percentile(sorted, 50),
+                percentile(sorted, 90), sorted[games - 1]);
+        histogram(sorted);
+
+        double acc = 0;
+        for (double a : accuracy) acc += a;
+        System.out.printf("Accuracy: %.1f%% of shots kill, hits taken: mean %.1f per game%n",
+                100 * acc / games, mean(hitsTaken));
+    }
+
+    // Same batch at 1, 2, 4 ... threads to check games/s grows with cores
+    void scalingReport() throws InterruptedException {
+        run(1); // warm-up so the 1-thread baseline isn't measured cold
+        double base = 0;
+        for (int t = 1; ; t = Math.min(t * 2, threads)) {
+            long nanos = run(t);
+            double rate = games / (nanos / 1e9);
+            if (t == 1) base = rate;
+            System.out.printf("%3d threads: %8.1f games/s  speedup %.2fx  efficiency %3.0f%%%n",
+                    t, rate, rate / base, 100 * rate / base / t);
+            if (t == threads) break;
+        }
+    }
+
+    void histogram(int[] sorted) {
+        final int buckets = 10, barWidth = 50;
+        int max = sorted[sorted.length - 1];
+        int step = Math.max(1, (max + buckets) / buckets);
+        int[] counts = new int[buckets];
+        for (int s : sorted) counts[Math.min(buckets - 1, s / step)]++;
+        int peak = Arrays.stream(counts).max().getAsInt();
+        for (int i = 0; i < buckets; i++) {
+            int bar = peak == 0 ? 0 : counts[i] * barWidth / peak;
+            System.out.printf("  %6d-%-6d %6d %s%n", i * step, (i + 1) * step - 1, counts[i], "#".repeat(bar));
+        }
+    }
+
+    static double mean(int[] values) {
+        long sum = 0;
+        for (int v : values) sum += v;
+        return sum / (double) values.length;
+    }
+
+    static int percentile(int[] sorted, int p) {
+        return sorted[Math.min(sorted.length - 1, sorted.length * p / 100)];
+    }
+}
@@ -0,0 +1,133 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+
+/**
+ * Text drawn from a pre-rendered glyph atlas instead of Graphics.drawString.
+ *
+ * The printable ASCII range of a Font is rasterized once, in one color, into
+ * a single image. Drawing is then one image copy per character, straight
+ * from chars and numbers: no String building, layout or glyph rendering per
+ * frame. Coordinates work like drawString (y is the baseline); every draw
+ * method returns the x where the next text would start.
+ */
+public class BitmapFont {
+    static final char FIRST = 32, LAST = 126;
+    static final int PAD = 1; // room for antialiasing that spills past the advance
+
+    private final BufferedImage atlas;
+    private final int[] cellX = new int[LAST - FIRST + 1];
+    private final int[] advance = new int[LAST - FIRST + 1];
+    private final int ascent, height;
+
+    public BitmapFont(Font font, Color color) {
+        BufferedImage probe = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D pg = probe.createGraphics();
+        FontMetrics fm = pg.getFontMetrics(font);
+        pg.dispose();
+
+        ascent = fm.getAscent();
+        height = ascent + fm.getDescent();
+        int width = 0;
+        for (char c = FIRST; c <= LAST; c++) {
+            cellX[c - FIRST] = width;
+            advance[c - FIRST] = fm.charWidth(c);
+            width += advance[c - FIRST] + 2 * PAD;
+        }
+
+        atlas = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        Graphics2D g = atlas.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g.setFont(font);
+        g.setColor(color);
+        char[] one = new char[1];
+        for (char c = FIRST; c <= LAST; c++) {
+            one[0] = c;
+            g.drawChars(one, 0, 1, cellX[c - FIRST] + PAD, ascent);
+        }
+        g.dispose();
+    }
+
+    // The same font rasterized 'scale' times larger, for text drawn at device pixels
+    public BitmapFont(Font font, Color color, double scale) {
+        this(font.deriveFont((float) (font.getSize2D() * scale)), color);
+    }
+
+    public int drawChar(Graphics g, char c, int x, int y) {
+        if (c < FIRST || c > LAST) c = '?';
+        int i = c - FIRST;
+        int sx = cellX[i], top = y - ascent, w = advance[i] + 2 * PAD;
+        g.drawImage(atlas, x - PAD, top, x - PAD + w, top + height, sx, 0, sx + w, height, null);
+        return x + advance[i];
+    }
+
+    public int drawString(Graphics g, CharSequence text, int x, int y) {
+        for (int i = 0, n = text.length(); i < n; i++) x = drawChar(g, text.charAt(i), x, y);
+        return x;
+    }
+
+    // Decimal digits of value, drawn right to left so nothing is buffered
+    public int drawInt(Graphics g, long value, int x, int y) {
+        if (value < 0) {
+            x = drawChar(g, '-', x, y);
+            value = -value; // Long.MIN_VALUE stays negative; not a number we draw
+        }
+        int end = x + intWidth(value);
+        int cx = end;
+        do {
+            char d = (char) ('0' + value % 10);
+            cx -= advance[d - FIRST];
+            drawChar(g, d, cx, y);
+            value /= 10;
+        } while (value > 0);
+        return end;
+    }
+
+    // value rounded to 'decimals' places, e.g. drawFixed(g, 16.666, 2, ..) draws "16.67"
+    public int drawFixed(Graphics g, double value, int decimals, int x, int y) {
+        long scale = 1;
+        for (int i = 0; i < decimals; i++) scale *= 10;
+        long scaled = Math.round(Math.abs(value) * scale);
+        if (value < 0 && scaled != 0) x = drawChar(g, '-', x, y);
+        x = drawInt(g, scaled / scale, x, y);
+        if (decimals == 0) return x;
+        x = drawChar(g, '.', x, y);
+        long frac = scaled % scale;
+        for (long digit = scale / 10; digit > 0; digit /= 10) {
+            x = drawChar(g, (char) ('0' + frac / digit % 10), x, y);
+        }
+        return x;
+    }
+
+    public int stringWidth(CharSequence text) {
+        int w = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            w += advance[(c < FIRST || c > LAST ? '?' : c) - FIRST];
+        }
+        return w;
+    }
+
+    // width of a non-negative integer
+    public int intWidth(long value) {
+        int w = 0;
+        do {
+            w += advance[(int) (value % 10) + '0' - FIRST];
+            value /= 10;
+        } while (value > 0);
+        return w;
+    }
+
+    public int height() {
+        return height;
+    }
+}
@@ -0,0 +1,7 @@
+/**
+ * Something that plays the game instead of a human.
+ * Called once per tick; must fill in the whole frame and should not allocate.
+ */
+public interface BotController {
+    void control(GameWorld world, InputFrame input);
+}
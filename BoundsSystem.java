@@ -0,0 +1,30 @@
+/**
+ * Destroys bullets that have left the arena (or the awake part of it).
+ */
+public class BoundsSystem {
+    private final Ecs ecs;
+    private final Query q;
+
+    public BoundsSystem(Ecs ecs) {
+        this.ecs = ecs;
+        q = ecs.query(Components.BULLET | Components.POSITION);
+    }
+
+    public void run(int width, int height) {
+        run(0, 0, width, height);
+    }
+
+    public void run(double minX, double minY, double maxX, double maxY) {
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            // back to front so destroy() can swap-remove under us
+            for (int c = arch.chunkCount - 1; c >= 0; c--) {
+                Chunk ch = arch.chunks[c];
+                for (int i = ch.count - 1; i >= 0; i--) {
+                    double x = ch.x[i], y = ch.y[i];
+                    if (x < minX || x > maxX || y < minY || y > maxY) ecs.destroy(ch.entity[i]);
+                }
+            }
+        }
+    }
+}
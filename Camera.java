@@ -0,0 +1,19 @@
+/**
+ * The logical-size window onto the world, kept centered on a target and
+ * clamped to the world edges (pinned at 0 when the world is no bigger than
+ * the view).
+ */
+public class Camera {
+    public final int width, height;
+    public int x, y; // top-left, world pixels (whole pixels so tiles blit unfiltered)
+
+    public Camera(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void follow(double targetX, double targetY, int worldWidth, int worldHeight) {
+        x = (int) Math.max(0, Math.min(worldWidth - width, Math.round(targetX - width / 2.0)));
+        y = (int) Math.max(0, Math.min(worldHeight - height, Math.round(targetY - height / 2.0)));
+    }
+}
@@ -0,0 +1,71 @@
+/**
+ * Moves chasers straight toward a target point at their own speed.
+ * Chasers outside the awake rectangle are asleep and stay put.
+ * runFixed() is the same step in 16.16 integers (see Fixed).
+ */
+public class ChaseSystem {
+    private final Query q;
+
+    public ChaseSystem(Ecs ecs) {
+        q = ecs.query(Components.CHASE | Components.POSITION | Components.SIZE);
+    }
+
+    public void run(double targetX, double targetY) {
+        run(targetX, targetY, -GameWorld.FAR, -GameWorld.FAR, GameWorld.FAR, GameWorld.FAR);
+    }
+
+    // Returns how many chasers were awake
+    public int run(double targetX, double targetY, double minX, double minY, double maxX, double maxY) {
+        int awake = 0;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y, speed = ch.speed;
+                int[] w = ch.w, h = ch.h;
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (x[i] < minX || x[i] >= maxX || y[i] < minY || y[i] >= maxY) continue;
+                    awake++;
+                    double dx = targetX - (x[i] + w[i] / 2);
+                    double dy = targetY - (y[i] + h[i] / 2);
+                    double dist = Math.sqrt(dx * dx + dy * dy);
+
+                    if (dist > 0) {
+                        x[i] += (dx / dist) * speed[i];
+                        y[i] += (dy / dist) * speed[i];
+                    }
+                }
+            }
+        }
+        return awake;
+    }
+
+    // run() for fixed-point mode: positions stay on the 16.16 grid
+    public int runFixed(double targetX, double targetY, double minX, double minY, double maxX, double maxY) {
+        int tx = Fixed.toFixed(targetX), ty = Fixed.toFixed(targetY);
+        int awake = 0;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y, speed = ch.speed;
+                int[] w = ch.w, h = ch.h;
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (x[i] < minX || x[i] >= maxX || y[i] < minY || y[i] >= maxY) continue;
+                    awake++;
+                    int fx = Fixed.toFixed(x[i]), fy = Fixed.toFixed(y[i]);
+                    int dx = tx - (fx + (w[i] / 2 << Fixed.SHIFT));
+                    int dy = ty - (fy + (h[i] / 2 << Fixed.SHIFT));
+                    int dist = Fixed.length(dx, dy);
+
+                    if (dist > 0) {
+                        int s = Fixed.toFixed(speed[i]);
+                        x[i] = Fixed.toDouble(fx + (int) ((long) dx * s / dist));
+                        y[i] = Fixed.toDouble(fy + (int) ((long) dy * s / dist));
+                    }
+                }
+            }
+        }
+        return awake;
+    }
+}
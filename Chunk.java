@@ -0,0 +1,58 @@
+/**
+ * Fixed-size block of entities of one archetype, stored as parallel
+ * primitive arrays (one per component field). Rows [0, count) are live
+ * and always packed, so systems can walk them with a plain for loop.
+ */
+public class Chunk {
+    public static final int CAPACITY = 1024;
+
+    final int mask;
+    int count = 0;
+
+    final int[] entity = new int[CAPACITY];
+    final double[] x, y;        // POSITION
+    final double[] vx, vy;      // VELOCITY
+    final int[] w, h;           // SIZE
+    final double[] angle;       // ROTATION
+    final double[] speed;       // CHASE
+    final int[] health, maxHealth; // HEALTH
+
+    Chunk(int mask) {
+        this.mask = mask;
+        boolean pos = Components.has(mask, Components.POSITION);
+        boolean vel = Components.has(mask, Components.VELOCITY);
+        boolean size = Components.has(mask, Components.SIZE);
+        boolean hp = Components.has(mask, Components.HEALTH);
+        x = pos ? new double[CAPACITY] : null;
+        y = pos ? new double[CAPACITY] : null;
+        vx = vel ? new double[CAPACITY] : null;
+        vy = vel ? new double[CAPACITY] : null;
+        w = size ? new int[CAPACITY] : null;
+        h = size ? new int[CAPACITY] : null;
+        angle = Components.has(mask, Components.ROTATION) ? new double[CAPACITY] : null;
+        speed = Components.has(mask, Components.CHASE) ? new double[CAPACITY] : null;
+        health = hp ? new int[CAPACITY] : null;
+        maxHealth = hp ? new int[CAPACITY] : null;
+    }
+
+    // Copy every component of row src in 'from' (same archetype) into row dst here
+    void copyRow(int dst, Chunk from, int src) {
+        entity[dst] = from.entity[src];
+        if (x != null) { x[dst] = from.x[src]; y[dst] = from.y[src]; }
+        if (vx != null) { vx[dst] = from.vx[src]; vy[dst] = from.vy[src]; }
+        if (w != null) { w[dst] = from.w[src]; h[dst] = from.h[src]; }
+        if (angle != null) angle[dst] = from.angle[src];
+        if (speed != null) speed[dst] = from.speed[src];
+        if (health != null) { health[dst] = from.health[src]; maxHealth[dst] = from.maxHealth[src]; }
+    }
+
+    // Zero a freshly allocated row so reused slots don't leak old values
+    void clearRow(int row) {
+        if (x != null) { x[row] = 0; y[row] = 0; }
+        if (vx != null) { vx[row] = 0; vy[row] = 0; }
+        if (w != null) { w[row] = 0; h[row] = 0; }
+        if (angle != null) angle[row] = 0;
+        if (speed != null) speed[row] = 0;
+        if (health != null) { health[row] = 0; maxHealth[row] = 0; }
+    }
+}
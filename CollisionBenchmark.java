@@ -0,0 +1,67 @@
+/**
+ * Cost of the pixel narrow phase per candidate pair. Every pair is one that
+ * the bounding-box test alone would have called a hit (enemy vs player and
+ * bullet vs enemy, random rotations), so this is the worst case: each one
+ * goes on to the mask test. Also reports how many of those "hits" the masks
+ * throw out.
+ *
+ *   java CollisionBenchmark [pairs] [repeats]
+ */
+public class CollisionBenchmark {
+
+    public static void main(String[] args) {
+        int pairs = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int repeats = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        // candidates: positions whose unrotated boxes overlap, the old hit test
+        GameRandom r = new GameRandom(42);
+        CollisionMask[] a = new CollisionMask[pairs], b = new CollisionMask[pairs];
+        int[] bx = new int[pairs], by = new int[pairs];
+        int[] aw = new int[pairs], ah = new int[pairs], bw = new int[pairs], bh = new int[pairs];
+        for (int i = 0; i < pairs; i++) {
+            if (i % 2 == 0) { // enemy touching the player's box
+                a[i] = CollisionMask.PLAYER[r.nextInt(RenderSystem.FRAMES)];
+                b[i] = CollisionMask.ENEMY[r.nextInt(RenderSystem.FRAMES)];
+                aw[i] = GameWorld.PLAYER_WIDTH; ah[i] = GameWorld.PLAYER_HEIGHT;
+                bw[i] = bh[i] = GameWorld.ENEMY_SIZE;
+            } else {          // bullet touching an enemy's box
+                a[i] = CollisionMask.ENEMY[r.nextInt(RenderSystem.FRAMES)];
+                b[i] = CollisionMask.BULLET;
+                aw[i] = ah[i] = GameWorld.ENEMY_SIZE;
+                bw[i] = bh[i] = GameWorld.BULLET_SIZE;
+            }
+            // box corners at (0, 0) and (x, y) with the boxes overlapping; masks sit on the centers
+            int x = r.nextInt(aw[i] + bw[i] - 1) - (bw[i] - 1);
+            int y = r.nextInt(ah[i] + bh[i] - 1) - (bh[i] - 1);
+            bx[i] = x + bw[i] / 2 - aw[i] / 2;
+            by[i] = y + bh[i] / 2 - ah[i] / 2;
+        }
+
+        System.out.printf("%d candidate pairs (all overlapping as boxes), %d repeats%n", pairs, repeats);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            long sink = 0;
+            long start = System.nanoTime();
+            for (int rep = 0; rep < repeats; rep++) {
+                for (int i = 0; i < pairs; i++) {
+                    int x = bx[i] - bw[i] / 2 + aw[i] / 2, y = by[i] - bh[i] / 2 + ah[i] / 2;
+                    if (CollisionSystem.intersects(0, 0, aw[i], ah[i], x, y, bw[i], bh[i])) sink++;
+                }
+            }
+            double box = (System.nanoTime() - start) / (double) repeats / pairs;
+
+            long hits = 0;
+            start = System.nanoTime();
+            for (int rep = 0; rep < repeats; rep++) {
+                hits = 0;
+                for (int i = 0; i < pairs; i++) {
+                    if (CollisionMask.boundsOverlap(a[i], 0, 0, b[i], bx[i], by[i])
+                            && CollisionMask.overlaps(a[i], 0, 0, b[i], bx[i], by[i])) hits++;
+                }
+            }
+            double mask = (System.nanoTime() - start) / (double) repeats / pairs;
+
+            System.out.printf("round %d: box %.2f ns/pair, box + mask %.2f ns/pair (+%.2f ns); masks reject %.1f%% of box hits%s%n",
+                    round, box, mask, mask - box, 100.0 * (pairs - hits) / pairs, sink < 0 ? "!" : "");
+        }
+    }
+}
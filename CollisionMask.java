@@ -0,0 +1,132 @@
+import java.awt.Color;
+
+/**
+ * One bit per pixel of a sprite's shape, for pixel-accurate hit tests.
+ *
+ * Rows are packed into longs (bit i of word k is pixel 64k + i), so two
+ * masks are tested against each other a row at a time: shift the other
+ * mask's row into line with ours and AND 64 pixels per step. A pixel counts
+ * as solid from half coverage up, which is where the antialiased edge looks
+ * like it is.
+ *
+ * The ship masks come from the same pre-rotated frames RenderSystem draws
+ * (at scale 1), built once when this class loads. (minX, minY)-(maxX, maxY)
+ * is the tight box around the solid pixels relative to the origin; it is
+ * the broad phase, so a rotated ship is tested against its rotated extent.
+ */
+public class CollisionMask {
+    static final int SOLID_ALPHA = 128;
+
+    final int width, height;
+    final int originX, originY;
+    final int words; // longs per row
+    final long[] bits;
+    final int minX, minY, maxX, maxY; // [min, max) around the set bits, relative to the origin
+
+    static final CollisionMask[] PLAYER = of(RenderSystem.shipFrames(
+            GameWorld.PLAYER_WIDTH, GameWorld.PLAYER_HEIGHT, 15, Color.CYAN, 1));
+    static final CollisionMask[] ENEMY = of(RenderSystem.shipFrames(
+            GameWorld.ENEMY_SIZE, GameWorld.ENEMY_SIZE, 10, Color.RED, 1));
+    static final CollisionMask BULLET = new CollisionMask(RenderSystem.bulletSprite(1));
+
+    // furthest any solid pixel gets from the origin in x or y, over every frame, plus a pixel
+    // for rounding: pairs whose centers are further apart than the sum can't touch
+    static final int PLAYER_REACH = reach(PLAYER), ENEMY_REACH = reach(ENEMY);
+    static final int BULLET_REACH = reach(new CollisionMask[] {BULLET});
+
+    public CollisionMask(Sprite sprite) {
+        width = sprite.width;
+        height = sprite.height;
+        originX = sprite.originX;
+        originY = sprite.originY;
+        words = (width + 63) >>> 6;
+        bits = new long[words * height];
+
+        int x0 = width, y0 = height, x1 = 0, y1 = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (sprite.pixels[y * width + x] >>> 24 < SOLID_ALPHA) continue;
+                bits[y * words + (x >>> 6)] |= 1L << x;
+                x0 = Math.min(x0, x);
+                x1 = Math.max(x1, x + 1);
+                y0 = Math.min(y0, y);
+                y1 = Math.max(y1, y + 1);
+            }
+        }
+        if (x0 > x1) x0 = x1 = y0 = y1 = 0; // nothing solid
+        minX = x0 - originX;
+        maxX = x1 - originX;
+        minY = y0 - originY;
+        maxY = y1 - originY;
+    }
+
+    static CollisionMask[] of(Sprite[] frames) {
+        CollisionMask[] masks = new CollisionMask[frames.length];
+        for (int f = 0; f < frames.length; f++) masks[f] = new CollisionMask(frames[f]);
+        return masks;
+    }
+
+    static int reach(CollisionMask[] frames) {
+        int r = 0;
+        for (CollisionMask m : frames) {
+            r = Math.max(r, Math.max(Math.max(-m.minX, m.maxX), Math.max(-m.minY, m.maxY)));
+        }
+        return r + 1;
+    }
+
+    // Mask frame for a ship facing 'angle'
+    static CollisionMask frame(CollisionMask[] frames, double angle) {
+        return frames[Sprite.frame(angle, frames.length)];
+    }
+
+    // Same, for a binary angle (see Fixed)
+    static CollisionMask frameFixed(CollisionMask[] frames, int angle) {
+        return frames[Fixed.frame(angle, frames.length)];
+    }
+
+    // Frame for something at (cx, cy) facing (tx, ty), with Fixed.atan2 in fixed-point mode
+    static CollisionMask facing(CollisionMask[] frames, double cx, double cy, double tx, double ty, boolean fixedPoint) {
+        return fixedPoint
+                ? frameFixed(frames, Fixed.atan2(Fixed.toFixed(ty - cy), Fixed.toFixed(tx - cx)))
+                : frame(frames, Math.atan2(ty - cy, tx - cx));
+    }
+
+    // Broad phase: do the tight boxes of a (origin at ax, ay) and b (origin at bx, by) overlap?
+    static boolean boundsOverlap(CollisionMask a, int ax, int ay, CollisionMask b, int bx, int by) {
+        return a.maxX > a.minX && b.maxX > b.minX
+                && bx + b.minX < ax + a.maxX && ax + a.minX < bx + b.maxX
+                && by + b.minY < ay + a.maxY && ay + a.minY < by + b.maxY;
+    }
+
+    // Narrow phase: do any solid pixels coincide? Positions are where each origin lands.
+    static boolean overlaps(CollisionMask a, int ax, int ay, CollisionMask b, int bx, int by) {
+        int aLeft = ax - a.originX, aTop = ay - a.originY;
+        int bLeft = bx - b.originX, bTop = by - b.originY;
+
+        // overlap in world pixels, trimmed to both masks' solid boxes
+        int x0 = Math.max(ax + a.minX, bx + b.minX), x1 = Math.min(ax + a.maxX, bx + b.maxX);
+        int y0 = Math.max(ay + a.minY, by + b.minY), y1 = Math.min(ay + a.maxY, by + b.maxY);
+        if (x0 >= x1 || y0 >= y1) return false;
+
+        int k0 = (x0 - aLeft) >> 6, k1 = (x1 - 1 - aLeft) >> 6; // our words covering the overlap
+        int shift = aLeft - bLeft; // bit i of our row is bit i + shift of theirs
+        long[] abits = a.bits, bbits = b.bits;
+        for (int y = y0; y < y1; y++) {
+            int aRow = (y - aTop) * a.words, bRow = (y - bTop) * b.words;
+            for (int k = k0; k <= k1; k++) {
+                long mine = abits[aRow + k];
+                if (mine != 0 && (mine & row64(bbits, bRow, b.words, (k << 6) + shift)) != 0) return true;
+            }
+        }
+        return false;
+    }
+
+    // 64 pixels of a row starting at bit 'pos' (may run off either end: those pixels are clear)
+    private static long row64(long[] bits, int row, int words, int pos) {
+        int k = pos >> 6, s = pos & 63;
+        long lo = k >= 0 && k < words ? bits[row + k] : 0;
+        if (s == 0) return lo;
+        long hi = k + 1 >= 0 && k + 1 < words ? bits[row + k + 1] : 0;
+        return (lo >>> s) | (hi << (64 - s));
+    }
+}
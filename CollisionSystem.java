@@ -0,0 +1,115 @@
+/**
+ * Bullet vs enemy hits: the first bullet found overlapping an enemy destroys
+ * both and scores a kill.
+ *
+ * With world.pixelCollision on, "overlapping" means the drawn shapes touch:
+ * the boxes around the rotated masks meet (broad phase), then the mask rows
+ * are ANDed (narrow phase). Enemies face the player, as they are drawn.
+ */
+public class CollisionSystem {
+    // per pass, for the Flight Recorder event
+    private long pairs, candidates;
+
+    public void run(GameWorld world) {
+        GameEvents.Collision event = GameEvents.COLLISION.isEnabled() ? new GameEvents.Collision() : null;
+        if (event != null) event.begin();
+        pairs = candidates = 0;
+        int kills = 0;
+        int enemyCount = world.enemyCount(), bulletCount = world.bulletCount();
+
+        Ecs ecs = world.ecs;
+        Query enemies = world.enemies, bullets = world.bullets;
+        double pcx = world.playerCenterX(), pcy = world.playerCenterY();
+
+        // back to front on both sides so destroy() can swap-remove under us
+        for (int ea = 0; ea < enemies.count; ea++) {
+            Archetype earch = enemies.archetypes[ea];
+            for (int ec = earch.chunkCount - 1; ec >= 0; ec--) {
+                Chunk e = earch.chunks[ec];
+                for (int i = e.count - 1; i >= 0; i--) {
+                    boolean hit;
+                    if (world.pixelCollision) {
+                        hit = hitByBullet(world, bullets, e.x[i] + e.w[i] / 2.0, e.y[i] + e.h[i] / 2.0, pcx, pcy);
+                    } else {
+                        hit = hitByBullet(world, bullets, (int) e.x[i], (int) e.y[i], e.w[i], e.h[i]);
+                    }
+                    if (hit) {
+                        world.events.publish(EventBus.ENEMY_KILLED, e.entity[i], world.killScore,
+                                e.x[i] + e.w[i] / 2.0, e.y[i] + e.h[i] / 2.0);
+                        ecs.destroy(e.entity[i]);
+                        world.score += world.killScore;
+                        kills++;
+                    }
+                }
+            }
+        }
+
+        if (event != null) event.end();
+        if (event != null && event.shouldCommit()) {
+            event.enemies = enemyCount;
+            event.bullets = bulletCount;
+            event.pairs = pairs;
+            event.candidates = candidates;
+            event.kills = kills;
+            event.pixel = world.pixelCollision;
+            event.commit();
+        }
+    }
+
+    // Destroys the first bullet overlapping the rectangle and reports whether there was one
+    private boolean hitByBullet(GameWorld world, Query bullets, int ex, int ey, int ew, int eh) {
+        for (int ba = 0; ba < bullets.count; ba++) {
+            Archetype barch = bullets.archetypes[ba];
+            for (int bc = barch.chunkCount - 1; bc >= 0; bc--) {
+                Chunk b = barch.chunks[bc];
+                for (int j = b.count - 1; j >= 0; j--) {
+                    pairs++;
+                    if (intersects(ex, ey, ew, eh, (int) b.x[j], (int) b.y[j], b.w[j], b.h[j])) {
+                        world.ecs.destroy(b.entity[j]);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // Same, for the enemy centered on (cx, cy) facing (pcx, pcy), against the bullets' masks
+    private boolean hitByBullet(GameWorld world, Query bullets, double cx, double cy, double pcx, double pcy) {
+        CollisionMask bm = CollisionMask.BULLET, mask = null;
+        int x = pixel(cx), y = pixel(cy);
+        double reach = CollisionMask.ENEMY_REACH + CollisionMask.BULLET_REACH;
+        for (int ba = 0; ba < bullets.count; ba++) {
+            Archetype barch = bullets.archetypes[ba];
+            for (int bc = barch.chunkCount - 1; bc >= 0; bc--) {
+                Chunk b = barch.chunks[bc];
+                for (int j = b.count - 1; j >= 0; j--) {
+                    pairs++;
+                    double bcx = b.x[j] + b.w[j] / 2.0, bcy = b.y[j] + b.h[j] / 2.0;
+                    if (Math.abs(bcx - cx) >= reach || Math.abs(bcy - cy) >= reach) continue;
+                    candidates++;
+                    // the enemy's rotation only matters once something is this close
+                    if (mask == null) mask = CollisionMask.facing(CollisionMask.ENEMY, cx, cy, pcx, pcy, world.fixedPoint);
+                    int bx = pixel(bcx), by = pixel(bcy);
+                    if (CollisionMask.boundsOverlap(mask, x, y, bm, bx, by)
+                            && CollisionMask.overlaps(mask, x, y, bm, bx, by)) {
+                        world.ecs.destroy(b.entity[j]);
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    // World coordinate to the pixel a mask origin lands on (same rounding as the software renderer)
+    static int pixel(double v) {
+        return (int) Math.floor(v + 0.5);
+    }
+
+    // Same test as Rectangle.intersects, without the Rectangle
+    static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        return aw > 0 && ah > 0 && bw > 0 && bh > 0
+                && bx < ax + aw && by < ay + ah && ax < bx + bw && ay < by + bh;
+    }
+}
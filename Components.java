@@ -0,0 +1,23 @@
+/**
+ * Component bits for the ECS. An entity's archetype is the OR of the bits it
+ * carries; only the arrays for those bits get allocated in its chunks.
+ */
+public final class Components {
+    public static final int POSITION = 1;      // x, y (top-left corner)
+    public static final int VELOCITY = 1 << 1; // vx, vy per tick
+    public static final int SIZE     = 1 << 2; // w, h
+    public static final int ROTATION = 1 << 3; // angle in radians
+    public static final int CHASE    = 1 << 4; // speed toward the player
+    public static final int HEALTH   = 1 << 5; // health, maxHealth
+
+    // tags, no data
+    public static final int PLAYER   = 1 << 8;
+    public static final int ENEMY    = 1 << 9;
+    public static final int BULLET   = 1 << 10;
+
+    private Components() {}
+
+    public static boolean has(int mask, int bits) {
+        return (mask & bits) == bits;
+    }
+}
@@ -0,0 +1,91 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.util.Arrays;
+
+/**
+ * Floating "+10" / "-20" numbers where enemies die and where the player is
+ * hit. Event bus subscriber; numbers live in a fixed ring (the oldest is
+ * overwritten when it fills up) and drift upward for LIFE ticks.
+ */
+public class DamageNumbers implements EventBus.Handler {
+    static final int CAPACITY = 32;
+    static final int LIFE = 45;        // ticks
+    static final double RISE = 0.7;    // pixels per tick
+    static final int REDUCED = 8;      // numbers drawn at reduced effect detail
+
+    private static BitmapFont gain, loss;
+    private static double fontScale; // what gain and loss were rasterized for
+
+    private final double[] x = new double[CAPACITY], y = new double[CAPACITY];
+    private final int[] value = new int[CAPACITY], age = new int[CAPACITY];
+    private int next = 0;
+
+    public DamageNumbers() {
+        Arrays.fill(age, LIFE);
+    }
+
+    @Override
+    public void onEvent(int type, int entity, int v, double ex, double ey, boolean endOfBatch) {
+        if (type == EventBus.ENEMY_KILLED) add(v, ex, ey);
+        else if (type == EventBus.PLAYER_HIT) add(-v, ex, ey);
+    }
+
+    private void add(int v, double ex, double ey) {
+        x[next] = ex;
+        y[next] = ey;
+        value[next] = v;
+        age[next] = 0;
+        next = (next + 1) % CAPACITY;
+    }
+
+    // Once per sim tick
+    public void update() {
+        for (int i = 0; i < CAPACITY; i++) {
+            if (age[i] < LIFE) {
+                age[i]++;
+                y[i] -= RISE;
+            }
+        }
+    }
+
+    // Take over another instance's numbers (for drawing a copy off the sim thread)
+    public void copyFrom(DamageNumbers o) {
+        System.arraycopy(o.x, 0, x, 0, CAPACITY);
+        System.arraycopy(o.y, 0, y, 0, CAPACITY);
+        System.arraycopy(o.value, 0, value, 0, CAPACITY);
+        System.arraycopy(o.age, 0, age, 0, CAPACITY);
+        next = o.next;
+    }
+
+    public void clear() {
+        Arrays.fill(age, LIFE);
+    }
+
+    // (cameraX, cameraY) = world position of the screen's top-left corner
+    public void draw(Graphics g, int cameraX, int cameraY) {
+        draw(g, cameraX, cameraY, CAPACITY, 1);
+    }
+
+    // Only the 'limit' newest live numbers (the quality governor's effect budget),
+    // onto a surface 'scale' device pixels per world pixel
+    public void draw(Graphics g, int cameraX, int cameraY, int limit, double scale) {
+        if (limit <= 0) return;
+        if (gain == null || scale != fontScale) {
+            Font font = new Font("Arial", Font.BOLD, 16);
+            gain = new BitmapFont(font, Color.YELLOW, scale);
+            loss = new BitmapFont(font, Color.RED, scale);
+            fontScale = scale;
+        }
+        for (int k = 1, drawn = 0; k <= CAPACITY && drawn < limit; k++) {
+            int i = (next - k + CAPACITY) % CAPACITY; // newest first
+            if (age[i] >= LIFE) continue;
+            drawn++;
+            BitmapFont font = value[i] < 0 ? loss : gain;
+            int w = font.intWidth(Math.abs(value[i])) + font.stringWidth("+");
+            int sx = (int) ((x[i] - cameraX) * scale) - w / 2, sy = (int) ((y[i] - cameraY) * scale);
+            sx = font.drawChar(g, value[i] < 0 ? '-' : '+', sx, sy);
+            font.drawInt(g, Math.abs(value[i]), sx, sy);
+        }
+    }
+}
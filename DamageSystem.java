@@ -0,0 +1,62 @@
+/**
+ * Enemy vs player contact and the lose conditions.
+ * One contact per tick costs contactDamage and removes that enemy; an enemy
+ * slipping past the bottom edge, or health hitting zero, ends the game.
+ * With world.pixelCollision on, contact means the rotated ship masks touch
+ * (see CollisionSystem).
+ */
+public class DamageSystem {
+    public void run(GameWorld world) {
+        Ecs ecs = world.ecs;
+        Chunk pc = ecs.chunk(world.player);
+        int pr = ecs.row(world.player);
+        int px = (int) pc.x[pr], py = (int) pc.y[pr], pw = pc.w[pr], ph = pc.h[pr];
+        double pcx = pc.x[pr] + pw / 2.0, pcy = pc.y[pr] + ph / 2.0;
+        CollisionMask pm = world.pixelCollision ? CollisionMask.frame(CollisionMask.PLAYER, pc.angle[pr]) : null;
+        int pmx = CollisionSystem.pixel(pcx), pmy = CollisionSystem.pixel(pcy);
+
+        Query enemies = world.enemies;
+        contact:
+        for (int a = 0; a < enemies.count; a++) {
+            Archetype arch = enemies.archetypes[a];
+            for (int c = arch.chunkCount - 1; c >= 0; c--) {
+                Chunk e = arch.chunks[c];
+                for (int i = e.count - 1; i >= 0; i--) {
+                    if (world.pixelCollision ? touches(pm, pmx, pmy, pcx, pcy, e.x[i], e.y[i], e.w[i], e.h[i], world.fixedPoint)
+                            : CollisionSystem.intersects((int) e.x[i], (int) e.y[i], e.w[i], e.h[i], px, py, pw, ph)) {
+                        pc.health[pr] = Math.max(0, pc.health[pr] - world.contactDamage);
+                        world.events.publish(EventBus.PLAYER_HIT, world.player, world.contactDamage,
+                                e.x[i] + e.w[i] / 2.0, e.y[i] + e.h[i] / 2.0);
+
+                        // remove the enemy so it doesn't keep draining health every frame
+                        ecs.destroy(e.entity[i]);
+                        break contact;
+                    }
+                    if (e.y[i] > world.arenaHeight && !world.endless) {
+                        world.gameOver = true;
+                        break contact;
+                    }
+                }
+            }
+        }
+
+        // check if player health is 0
+        if (pc.health[pr] <= 0 && !world.endless) {
+            world.gameOver = true;
+        }
+        if (world.gameOver) {
+            world.events.publish(EventBus.GAME_OVER, world.player, world.score, pc.x[pr], pc.y[pr]);
+        }
+    }
+
+    // Does the enemy at (x, y, w, h), facing the player, touch the player's mask?
+    private static boolean touches(CollisionMask pm, int pmx, int pmy, double pcx, double pcy,
+                                   double x, double y, int w, int h, boolean fixedPoint) {
+        double cx = x + w / 2.0, cy = y + h / 2.0;
+        int reach = CollisionMask.PLAYER_REACH + CollisionMask.ENEMY_REACH;
+        if (Math.abs(cx - pcx) >= reach || Math.abs(cy - pcy) >= reach) return false;
+        CollisionMask em = CollisionMask.facing(CollisionMask.ENEMY, cx, cy, pcx, pcy, fixedPoint);
+        int ex = CollisionSystem.pixel(cx), ey = CollisionSystem.pixel(cy);
+        return CollisionMask.boundsOverlap(pm, pmx, pmy, em, ex, ey) && CollisionMask.overlaps(pm, pmx, pmy, em, ex, ey);
+    }
+}
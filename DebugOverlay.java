@@ -0,0 +1,66 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+
+/**
+ * Small text overlay for frame stats, toggled in game with F3.
+ * Usage per frame: begin(g), then per row either line(text) or
+ * text(..)/number(..)/fixed(..) pieces closed by endLine(). Drawn from
+ * bitmap fonts, so rows built from pieces allocate nothing.
+ */
+public class DebugOverlay {
+    static final Font FONT = new Font("Monospaced", Font.PLAIN, 12);
+    static final int LINE_HEIGHT = 14;
+
+    private static BitmapFont text, shadow;
+
+    private boolean visible = false;
+    private Graphics g;
+    private int x, y, cx;
+
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void begin(Graphics g, int x, int y) {
+        if (text == null) {
+            text = new BitmapFont(FONT, Color.GREEN);
+            shadow = new BitmapFont(FONT, Color.BLACK);
+        }
+        this.g = g;
+        this.x = x;
+        this.y = y;
+        cx = x;
+    }
+
+    public void line(CharSequence s) {
+        text(s).endLine();
+    }
+
+    public DebugOverlay text(CharSequence s) {
+        shadow.drawString(g, s, cx + 1, y + 1);
+        cx = text.drawString(g, s, cx, y);
+        return this;
+    }
+
+    public DebugOverlay number(long value) {
+        shadow.drawInt(g, value, cx + 1, y + 1);
+        cx = text.drawInt(g, value, cx, y);
+        return this;
+    }
+
+    public DebugOverlay fixed(double value, int decimals) {
+        shadow.drawFixed(g, value, decimals, cx + 1, y + 1);
+        cx = text.drawFixed(g, value, decimals, cx, y);
+        return this;
+    }
+
+    public void endLine() {
+        cx = x;
+        y += LINE_HEIGHT;
+    }
+}
@@ -0,0 +1,87 @@
+import java.util.Arrays;
+
+/**
+ * One frame's draw commands in a flat int buffer, STRIDE ints each: a
+ * 16-bit sort key (layer, sprite, angle frame), x and y of the box's
+ * top-left corner as float bits, and the box size packed as w | h << 16.
+ * The sim fills it while capturing a RenderSnapshot; the renderer sorts it
+ * and draws it in batches.
+ *
+ * sort() is a stable two-pass LSD radix sort of an index array on the key,
+ * so commands come out grouped by layer (lowest first, i.e. drawn
+ * underneath), then by sprite, then by frame, and in emission order within
+ * a group. A batch is a run with the same layer and sprite: one color,
+ * texture or blitter setup for all of it.
+ *
+ * Buffers only grow.
+ */
+public class DrawQueue {
+    static final int STRIDE = 4;
+    static final int SPRITE_PLAYER = 0, SPRITE_BULLET = 1, SPRITE_ENEMY = 2;
+    static final int FRAME_BITS = 6, SPRITE_BITS = 6, LAYER_BITS = 4; // 16 bits of key
+
+    private int[] buf = new int[256 * STRIDE];
+    private int count;
+
+    private int[] order = new int[256], scratch = new int[256];
+    private final int[] counts = new int[256];
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void add(int layer, int sprite, int frame, double x, double y, int w, int h) {
+        if ((count + 1) * STRIDE > buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        int o = count * STRIDE;
+        buf[o] = layer << (SPRITE_BITS + FRAME_BITS) | sprite << FRAME_BITS | frame;
+        buf[o + 1] = Float.floatToRawIntBits((float) x);
+        buf[o + 2] = Float.floatToRawIntBits((float) y);
+        buf[o + 3] = w | h << 16;
+        count++;
+    }
+
+    // Orders commands by key; at(k) is then the k-th command to draw
+    public void sort() {
+        if (order.length < count) {
+            order = new int[buf.length / STRIDE];
+            scratch = new int[order.length];
+        }
+        for (int i = 0; i < count; i++) order[i] = i;
+        pass(order, scratch, 0);
+        pass(scratch, order, 8);
+    }
+
+    // One stable counting pass on 8 bits of the key, src -> dst
+    private void pass(int[] src, int[] dst, int shift) {
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < count; i++) counts[buf[src[i] * STRIDE] >>> shift & 0xFF]++;
+        for (int b = 0, sum = 0; b < 256; b++) {
+            int c = counts[b];
+            counts[b] = sum;
+            sum += c;
+        }
+        for (int i = 0; i < count; i++) dst[counts[buf[src[i] * STRIDE] >>> shift & 0xFF]++] = src[i];
+    }
+
+    public int at(int k) {
+        return order[k];
+    }
+
+    public int key(int c) { return buf[c * STRIDE]; }
+    public int layer(int c) { return buf[c * STRIDE] >>> (SPRITE_BITS + FRAME_BITS); }
+    public int sprite(int c) { return buf[c * STRIDE] >>> FRAME_BITS & ((1 << SPRITE_BITS) - 1); }
+    public int frame(int c) { return buf[c * STRIDE] & ((1 << FRAME_BITS) - 1); }
+    public float x(int c) { return Float.intBitsToFloat(buf[c * STRIDE + 1]); }
+    public float y(int c) { return Float.intBitsToFloat(buf[c * STRIDE + 2]); }
+    public int w(int c) { return buf[c * STRIDE + 3] & 0xFFFF; }
+    public int h(int c) { return buf[c * STRIDE + 3] >>> 16; }
+
+    // Same batch: same layer and sprite
+    public static boolean sameBatch(int keyA, int keyB) {
+        return keyA >>> FRAME_BITS == keyB >>> FRAME_BITS;
+    }
+}
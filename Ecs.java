@@ -0,0 +1,306 @@
+import java.util.Arrays;
+
+/**
+ * Entity registry and archetype storage.
+ *
+ * An entity handle packs a slot index (low 22 bits) with a generation
+ * counter (high bits), so a handle to a destroyed entity never matches the
+ * slot's next occupant. Each live slot records where its data lives:
+ * archetype, chunk number and row.
+ *
+ * destroy() is immediate and swap-removes. It is safe while iterating an
+ * archetype from the back (last chunk, last row first), which is how the
+ * systems that destroy entities walk them.
+ *
+ * save() and restore() copy the whole store to and from a Snapshot with
+ * System.arraycopy; a Snapshot only allocates when it has to grow.
+ */
+public class Ecs {
+    static final int INDEX_BITS = 22;
+    static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+
+    private Archetype[] archetypes = new Archetype[8];
+    private int archetypeCount = 0;
+
+    private Query[] queries = new Query[8];
+    private int queryCount = 0;
+
+    // per slot
+    private Archetype[] slotArchetype = new Archetype[1024];
+    private int[] slotChunk = new int[1024];
+    private int[] slotRow = new int[1024];
+    private int[] slotGeneration = new int[1024];
+    private int slotCount = 0;
+
+    private int[] freeSlots = new int[1024];
+    private int freeCount = 0;
+
+    private int alive = 0;
+
+    public int create(int mask) {
+        Archetype arch = archetype(mask);
+        Chunk chunk = arch.tail();
+        int row = chunk.count++;
+        arch.size++;
+        chunk.clearRow(row);
+
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (slotCount == slotArchetype.length) growSlots();
+            slot = slotCount++;
+        }
+        slotArchetype[slot] = arch;
+        slotChunk[slot] = arch.chunkCount - 1;
+        slotRow[slot] = row;
+
+        int handle = (slotGeneration[slot] << INDEX_BITS) | slot;
+        chunk.entity[row] = handle;
+        alive++;
+        return handle;
+    }
+
+    public void destroy(int handle) {
+        if (!isAlive(handle)) return;
+        int slot = handle & INDEX_MASK;
+        Archetype arch = slotArchetype[slot];
+        Chunk chunk = arch.chunks[slotChunk[slot]];
+        int row = slotRow[slot];
+
+        // move the archetype's last entity into the hole
+        Chunk last = arch.chunks[arch.chunkCount - 1];
+        int lastRow = last.count - 1;
+        if (last != chunk || lastRow != row) {
+            chunk.copyRow(row, last, lastRow);
+            int moved = chunk.entity[row] & INDEX_MASK;
+            slotChunk[moved] = slotChunk[slot];
+            slotRow[moved] = row;
+        }
+        last.count--;
+        if (last.count == 0) arch.chunkCount--;
+        arch.size--;
+
+        slotArchetype[slot] = null;
+        slotGeneration[slot] = (slotGeneration[slot] + 1) & (-1 >>> INDEX_BITS);
+        if (freeCount == freeSlots.length) freeSlots = grow(freeSlots);
+        freeSlots[freeCount++] = slot;
+        alive--;
+    }
+
+    public boolean isAlive(int handle) {
+        int slot = handle & INDEX_MASK;
+        return slot < slotCount && slotArchetype[slot] != null
+                && slotGeneration[slot] == handle >>> INDEX_BITS;
+    }
+
+    public Chunk chunk(int handle) {
+        int slot = handle & INDEX_MASK;
+        return slotArchetype[slot].chunks[slotChunk[slot]];
+    }
+
+    public int row(int handle) {
+        return slotRow[handle & INDEX_MASK];
+    }
+
+    public int size() {
+        return alive;
+    }
+
+    // Remove every entity but keep archetypes, chunks and slot tables allocated
+    public void clear() {
+        for (int i = 0; i < archetypeCount; i++) archetypes[i].clear();
+        for (int s = 0; s < slotCount; s++) {
+            if (slotArchetype[s] != null) {
+                slotArchetype[s] = null;
+                slotGeneration[s] = (slotGeneration[s] + 1) & (-1 >>> INDEX_BITS);
+            }
+        }
+        // hand slots back in ascending order so fresh worlds number entities 0, 1, 2...
+        freeCount = 0;
+        for (int s = slotCount - 1; s >= 0; s--) {
+            if (freeCount == freeSlots.length) freeSlots = grow(freeSlots);
+            freeSlots[freeCount++] = s;
+        }
+        alive = 0;
+    }
+
+    // Copy every entity and the slot tables into 's'
+    public void save(Snapshot s) {
+        s.ensureArchetypes(archetypeCount);
+        s.archetypeCount = archetypeCount;
+        for (int a = 0; a < archetypeCount; a++) {
+            Archetype arch = archetypes[a];
+            s.ensureRows(a, arch.mask, arch.size);
+            s.sizes[a] = arch.size;
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                int off = c * Chunk.CAPACITY, n = ch.count;
+                System.arraycopy(ch.entity, 0, s.entity[a], off, n);
+                if (ch.x != null) { System.arraycopy(ch.x, 0, s.x[a], off, n); System.arraycopy(ch.y, 0, s.y[a], off, n); }
+                if (ch.vx != null) { System.arraycopy(ch.vx, 0, s.vx[a], off, n); System.arraycopy(ch.vy, 0, s.vy[a], off, n); }
+                if (ch.w != null) { System.arraycopy(ch.w, 0, s.w[a], off, n); System.arraycopy(ch.h, 0, s.h[a], off, n); }
+                if (ch.angle != null) System.arraycopy(ch.angle, 0, s.angle[a], off, n);
+                if (ch.speed != null) System.arraycopy(ch.speed, 0, s.speed[a], off, n);
+                if (ch.health != null) {
+                    System.arraycopy(ch.health, 0, s.health[a], off, n);
+                    System.arraycopy(ch.maxHealth, 0, s.maxHealth[a], off, n);
+                }
+            }
+        }
+
+        if (s.slotArchetype.length < slotCount) s.growSlots(slotArchetype.length);
+        System.arraycopy(slotArchetype, 0, s.slotArchetype, 0, slotCount);
+        System.arraycopy(slotChunk, 0, s.slotChunk, 0, slotCount);
+        System.arraycopy(slotRow, 0, s.slotRow, 0, slotCount);
+        System.arraycopy(slotGeneration, 0, s.slotGeneration, 0, slotCount);
+        s.slotCount = slotCount;
+        if (s.freeSlots.length < freeCount) s.freeSlots = new int[freeSlots.length];
+        System.arraycopy(freeSlots, 0, s.freeSlots, 0, freeCount);
+        s.freeCount = freeCount;
+        s.alive = alive;
+    }
+
+    // Put everything back as it was at save(); handles taken since then are dead again
+    public void restore(Snapshot s) {
+        for (int a = 0; a < archetypeCount; a++) {
+            Archetype arch = archetypes[a];
+            int size = a < s.archetypeCount ? s.sizes[a] : 0; // archetypes made since start out empty
+            arch.resize(size);
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                int off = c * Chunk.CAPACITY, n = ch.count;
+                System.arraycopy(s.entity[a], off, ch.entity, 0, n);
+                if (ch.x != null) { System.arraycopy(s.x[a], off, ch.x, 0, n); System.arraycopy(s.y[a], off, ch.y, 0, n); }
+                if (ch.vx != null) { System.arraycopy(s.vx[a], off, ch.vx, 0, n); System.arraycopy(s.vy[a], off, ch.vy, 0, n); }
+                if (ch.w != null) { System.arraycopy(s.w[a], off, ch.w, 0, n); System.arraycopy(s.h[a], off, ch.h, 0, n); }
+                if (ch.angle != null) System.arraycopy(s.angle[a], off, ch.angle, 0, n);
+                if (ch.speed != null) System.arraycopy(s.speed[a], off, ch.speed, 0, n);
+                if (ch.health != null) {
+                    System.arraycopy(s.health[a], off, ch.health, 0, n);
+                    System.arraycopy(s.maxHealth[a], off, ch.maxHealth, 0, n);
+                }
+            }
+        }
+
+        while (slotArchetype.length < s.slotCount) growSlots();
+        System.arraycopy(s.slotArchetype, 0, slotArchetype, 0, s.slotCount);
+        System.arraycopy(s.slotChunk, 0, slotChunk, 0, s.slotCount);
+        System.arraycopy(s.slotRow, 0, slotRow, 0, s.slotCount);
+        System.arraycopy(s.slotGeneration, 0, slotGeneration, 0, s.slotCount);
+        // slots first handed out after the save had never been used then
+        for (int slot = s.slotCount; slot < slotCount; slot++) {
+            slotArchetype[slot] = null;
+            slotGeneration[slot] = 0;
+        }
+        slotCount = s.slotCount;
+        if (freeSlots.length < s.freeCount) freeSlots = new int[s.freeSlots.length];
+        System.arraycopy(s.freeSlots, 0, freeSlots, 0, s.freeCount);
+        freeCount = s.freeCount;
+        alive = s.alive;
+    }
+
+    public Archetype archetype(int mask) {
+        for (int i = 0; i < archetypeCount; i++) {
+            if (archetypes[i].mask == mask) return archetypes[i];
+        }
+        if (archetypeCount == archetypes.length) {
+            Archetype[] grown = new Archetype[archetypeCount * 2];
+            System.arraycopy(archetypes, 0, grown, 0, archetypeCount);
+            archetypes = grown;
+        }
+        Archetype arch = new Archetype(mask);
+        archetypes[archetypeCount++] = arch;
+        for (int i = 0; i < queryCount; i++) queries[i].offer(arch);
+        return arch;
+    }
+
+    // Query for every archetype carrying all of 'required'. The same object is
+    // returned for the same mask and stays current, so callers should keep it.
+    public Query query(int required) {
+        for (int i = 0; i < queryCount; i++) {
+            if (queries[i].required == required) return queries[i];
+        }
+        if (queryCount == queries.length) {
+            Query[] grown = new Query[queryCount * 2];
+            System.arraycopy(queries, 0, grown, 0, queryCount);
+            queries = grown;
+        }
+        Query q = new Query(required);
+        for (int i = 0; i < archetypeCount; i++) q.offer(archetypes[i]);
+        queries[queryCount++] = q;
+        return q;
+    }
+
+    private void growSlots() {
+        int n = slotArchetype.length * 2;
+        Archetype[] a = new Archetype[n];
+        System.arraycopy(slotArchetype, 0, a, 0, slotCount);
+        slotArchetype = a;
+        slotChunk = Arrays.copyOf(slotChunk, n);
+        slotRow = Arrays.copyOf(slotRow, n);
+        slotGeneration = Arrays.copyOf(slotGeneration, n);
+    }
+
+    private static int[] grow(int[] a) {
+        return Arrays.copyOf(a, a.length * 2);
+    }
+
+    /**
+     * Flat copy of an Ecs: per archetype, one array per component holding
+     * its rows chunk after chunk, plus the slot tables. Arrays grow to the
+     * largest world saved into them and are then reused.
+     */
+    public static final class Snapshot {
+        int archetypeCount;
+        int[] sizes = new int[0];
+        int[][] entity = new int[0][], w = new int[0][], h = new int[0][];
+        int[][] health = new int[0][], maxHealth = new int[0][];
+        double[][] x = new double[0][], y = new double[0][], vx = new double[0][], vy = new double[0][];
+        double[][] angle = new double[0][], speed = new double[0][];
+
+        Archetype[] slotArchetype = new Archetype[0];
+        int[] slotChunk = new int[0], slotRow = new int[0], slotGeneration = new int[0];
+        int slotCount;
+        int[] freeSlots = new int[0];
+        int freeCount;
+        int alive;
+
+        void ensureArchetypes(int n) {
+            if (sizes.length >= n) return;
+            sizes = Arrays.copyOf(sizes, n);
+            entity = Arrays.copyOf(entity, n);
+            w = Arrays.copyOf(w, n);
+            h = Arrays.copyOf(h, n);
+            health = Arrays.copyOf(health, n);
+            maxHealth = Arrays.copyOf(maxHealth, n);
+            x = Arrays.copyOf(x, n);
+            y = Arrays.copyOf(y, n);
+            vx = Arrays.copyOf(vx, n);
+            vy = Arrays.copyOf(vy, n);
+            angle = Arrays.copyOf(angle, n);
+            speed = Arrays.copyOf(speed, n);
+        }
+
+        // Room for 'rows' rows of archetype a, in whole chunks, for the components 'mask' has
+        void ensureRows(int a, int mask, int rows) {
+            if (entity[a] != null && entity[a].length >= rows) return;
+            int n = Math.max(Chunk.CAPACITY, (rows + Chunk.CAPACITY - 1) / Chunk.CAPACITY * Chunk.CAPACITY);
+            n = Math.max(n, entity[a] == null ? 0 : entity[a].length * 2);
+            entity[a] = new int[n];
+            if (Components.has(mask, Components.POSITION)) { x[a] = new double[n]; y[a] = new double[n]; }
+            if (Components.has(mask, Components.VELOCITY)) { vx[a] = new double[n]; vy[a] = new double[n]; }
+            if (Components.has(mask, Components.SIZE)) { w[a] = new int[n]; h[a] = new int[n]; }
+            if (Components.has(mask, Components.ROTATION)) angle[a] = new double[n];
+            if (Components.has(mask, Components.CHASE)) speed[a] = new double[n];
+            if (Components.has(mask, Components.HEALTH)) { health[a] = new int[n]; maxHealth[a] = new int[n]; }
+        }
+
+        void growSlots(int n) {
+            slotArchetype = new Archetype[n];
+            slotChunk = new int[n];
+            slotRow = new int[n];
+            slotGeneration = new int[n];
+        }
+    }
+}
@@ -0,0 +1,101 @@
+import java.util.ArrayList;
+
+/**
+ * Chase + movement over 100k entities: the old one-object-per-entity lists
+ * against the ECS systems. Same math on both sides.
+ *
+ *   java EcsBenchmark [entities] [ticks]
+ */
+public class EcsBenchmark {
+
+    // The pre-ECS layout: one heap object per entity, held in ArrayLists
+    static class ObjectEnemy {
+        double x, y;
+        int width = 30, height = 30;
+        double speed = 2.0;
+
+        ObjectEnemy(double x, double y) { this.x = x; this.y = y; }
+
+        void chase(double targetX, double targetY) {
+            double dx = targetX - (x + width / 2);
+            double dy = targetY - (y + height / 2);
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            if (dist > 0) {
+                x += (dx / dist) * speed;
+                y += (dy / dist) * speed;
+            }
+        }
+    }
+
+    static class ObjectBullet {
+        double x, y, dx, dy;
+        int size = 4;
+
+        ObjectBullet(double x, double y, double angle) {
+            this.x = x; this.y = y;
+            dx = Math.cos(angle) * 10.0;
+            dy = Math.sin(angle) * 10.0;
+        }
+
+        void update() { x += dx; y += dy; }
+
+        boolean isOffScreen(int width, int height) {
+            return x < 0 || x > width || y < 0 || y > height;
+        }
+    }
+
+    // far enough away that nothing gets culled mid-run
+    static final int BOUNDS = 1_000_000_000;
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 500;
+
+        System.out.printf("%d entities (half enemies, half bullets), %d ticks%n", entities, ticks);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            double objects = runObjects(entities, ticks);
+            double ecs = runEcs(entities, ticks);
+            System.out.printf("round %d: objects %.2f ns/entity-tick, ECS %.2f ns/entity-tick (%.2fx)%n",
+                    round, objects, ecs, objects / ecs);
+        }
+    }
+
+    static double runObjects(int entities, int ticks) {
+        GameRandom r = new GameRandom(42);
+        ArrayList<ObjectEnemy> enemies = new ArrayList<>();
+        ArrayList<ObjectBullet> bullets = new ArrayList<>();
+        // interleaved allocation, like enemies and bullets appearing during play
+        for (int i = 0; i < entities / 2; i++) {
+            enemies.add(new ObjectEnemy(r.nextInt(800), r.nextInt(600)));
+            bullets.add(new ObjectBullet(r.nextInt(800), r.nextInt(600), r.nextDouble() * 6.28));
+        }
+
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            for (int i = bullets.size() - 1; i >= 0; i--) {
+                ObjectBullet b = bullets.get(i);
+                b.update();
+                if (b.isOffScreen(BOUNDS, BOUNDS)) bullets.remove(i);
+            }
+            for (ObjectEnemy en : enemies) en.chase(400, 300);
+        }
+        return (System.nanoTime() - start) / (double) ticks / entities;
+    }
+
+    static double runEcs(int entities, int ticks) {
+        GameRandom r = new GameRandom(42);
+        GameWorld world = new GameWorld(42);
+        for (int i = 0; i < entities / 2; i++) {
+            world.spawnEnemy(r.nextInt(800), r.nextInt(600));
+            world.spawnBullet(r.nextInt(800), r.nextInt(600), r.nextDouble() * 6.28);
+        }
+
+        long start = System.nanoTime();
+        for (int t = 0; t < ticks; t++) {
+            world.movement.run();
+            world.bounds.run(BOUNDS, BOUNDS);
+            world.chase.run(400, 300);
+        }
+        return (System.nanoTime() - start) / (double) ticks / entities;
+    }
+}
@@ -0,0 +1,174 @@
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Preallocated ring buffer for gameplay events (kills, hits, shots...).
+ *
+ * The simulation is the single producer: publish() writes primitive fields
+ * into the next slot and bumps the cursor, no allocation. Each subscriber
+ * keeps its own sequence and reads everything between it and the cursor in
+ * one batch, either on the sim thread via dispatch() after the tick, or on
+ * its own worker thread.
+ *
+ * The producer never waits: if the slowest subscriber is a whole ring
+ * behind, the event is dropped and counted instead of stalling the game.
+ */
+public class EventBus {
+    // event types
+    public static final int ENEMY_SPAWNED = 1;
+    public static final int BULLET_FIRED  = 2;
+    public static final int ENEMY_KILLED  = 3; // value = score awarded
+    public static final int PLAYER_HIT    = 4; // value = damage taken
+    public static final int GAME_OVER     = 5; // value = final score
+
+    public interface Handler {
+        // x, y = where it happened; endOfBatch lets handlers flush once per batch
+        void onEvent(int type, int entity, int value, double x, double y, boolean endOfBatch);
+    }
+
+    private final int mask;
+    private final int[] types, entities, values;
+    private final double[] xs, ys;
+
+    // next sequence to write; published events are [.., cursor)
+    private final PaddedSequence cursor = new PaddedSequence();
+    private long gate = 0;   // cached min subscriber sequence
+    private long dropped = 0;
+    private boolean muted;   // producer side; see setMuted
+
+    private volatile Subscription[] subscriptions = new Subscription[0];
+
+    public EventBus(int capacity) {
+        if (Integer.bitCount(capacity) != 1) throw new IllegalArgumentException("capacity must be a power of two");
+        mask = capacity - 1;
+        types = new int[capacity];
+        entities = new int[capacity];
+        values = new int[capacity];
+        xs = new double[capacity];
+        ys = new double[capacity];
+    }
+
+    // Producer side. Returns false (and counts a drop) if the ring is full.
+    public boolean publish(int type, int entity, int value, double x, double y) {
+        if (muted) return false;
+        long seq = cursor.get();
+        if (seq - gate >= types.length) {
+            gate = minSubscriberSequence(seq);
+            if (seq - gate >= types.length) {
+                dropped++;
+                return false;
+            }
+        }
+        int i = (int) seq & mask;
+        types[i] = type;
+        entities[i] = entity;
+        values[i] = value;
+        xs[i] = x;
+        ys[i] = y;
+        cursor.lazySet(seq + 1); // release: slot writes are visible before the new cursor
+        return true;
+    }
+
+    // Run every same-thread subscriber over what was published since its last batch
+    public void dispatch() {
+        for (Subscription s : subscriptions) {
+            if (s.worker == null) s.drain();
+        }
+    }
+
+    // Subscriber drained by dispatch() on the publishing thread
+    public synchronized Subscription subscribe(Handler handler) {
+        Subscription s = new Subscription(handler, cursor.get(), null);
+        add(s);
+        return s;
+    }
+
+    // Subscriber with its own daemon thread, polling and parking when idle
+    public synchronized Subscription subscribeWorker(Handler handler, String threadName) {
+        Subscription s = new Subscription(handler, cursor.get(), threadName);
+        add(s);
+        s.worker.start();
+        return s;
+    }
+
+    public synchronized void unsubscribe(Subscription s) {
+        int at = -1;
+        for (int i = 0; i < subscriptions.length; i++) if (subscriptions[i] == s) at = i;
+        if (at < 0) return; // not ours, or already removed
+        s.running = false;
+        Subscription[] next = new Subscription[subscriptions.length - 1];
+        System.arraycopy(subscriptions, 0, next, 0, at);
+        System.arraycopy(subscriptions, at + 1, next, at, next.length - at);
+        subscriptions = next;
+    }
+
+    // Producer side: while muted, publish() does nothing. Rollback re-simulation uses
+    // this so ticks that were already heard and seen once don't play again.
+    public void setMuted(boolean muted) {
+        this.muted = muted;
+    }
+
+    public long published() {
+        return cursor.get();
+    }
+
+    public long dropped() {
+        return dropped;
+    }
+
+    private void add(Subscription s) {
+        Subscription[] next = new Subscription[subscriptions.length + 1];
+        System.arraycopy(subscriptions, 0, next, 0, subscriptions.length);
+        next[subscriptions.length] = s;
+        subscriptions = next;
+    }
+
+    private long minSubscriberSequence(long fallback) {
+        long min = fallback;
+        for (Subscription s : subscriptions) min = Math.min(min, s.sequence.get());
+        return min;
+    }
+
+    public class Subscription {
+        final Handler handler;
+        final PaddedSequence sequence = new PaddedSequence(); // next event this subscriber reads
+        final Thread worker;
+        volatile boolean running = true;
+
+        Subscription(Handler handler, long start, String threadName) {
+            this.handler = handler;
+            sequence.lazySet(start);
+            if (threadName != null) {
+                worker = new Thread(this::run, threadName);
+                worker.setDaemon(true);
+            } else {
+                worker = null;
+            }
+        }
+
+        // Handle everything published so far as one batch; returns how many events
+        int drain() {
+            long next = sequence.get();
+            long available = cursor.get(); // acquire: pairs with the producer's lazySet
+            if (next >= available) return 0;
+            for (long seq = next; seq < available; seq++) {
+                int i = (int) seq & mask;
+                handler.onEvent(types[i], entities[i], values[i], xs[i], ys[i], seq == available - 1);
+            }
+            sequence.lazySet(available);
+            return (int) (available - next);
+        }
+
+        private void run() {
+            while (running) {
+                if (drain() == 0) LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    // AtomicLong padded out to its own cache line so producer and consumers don't false-share
+    @SuppressWarnings({"unused", "serial"}) // padding is never read; never serialized
+    static final class PaddedSequence extends AtomicLong {
+        long p1, p2, p3, p4, p5, p6, p7;
+    }
+}
@@ -0,0 +1,83 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Event bus throughput, same-thread and with a worker consumer, plus a check
+ * that publishing allocates nothing.
+ *
+ *   java EventBusBenchmark [events]
+ */
+public class EventBusBenchmark {
+    static class Counter implements EventBus.Handler {
+        volatile long count;
+        long sum;
+
+        @Override
+        public void onEvent(int type, int entity, int value, double x, double y, boolean endOfBatch) {
+            sum += value;
+            if (endOfBatch) count = sum;
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        long events = args.length > 0 ? Long.parseLong(args[0]) : 50_000_000L;
+        for (int round = 0; round < 3; round++) {
+            sameThread(events);
+            worker(events);
+        }
+        allocation();
+    }
+
+    // Publish a tick's worth of events, then dispatch, like GameWorld.step
+    static void sameThread(long events) {
+        EventBus bus = new EventBus(4096);
+        Counter c = new Counter();
+        bus.subscribe(c);
+        long start = System.nanoTime();
+        for (long i = 0; i < events; i++) {
+            bus.publish(EventBus.ENEMY_KILLED, (int) i, 1, i, i);
+            if ((i & 255) == 255) bus.dispatch();
+        }
+        bus.dispatch();
+        report("same thread", events, System.nanoTime() - start, c.sum, bus.dropped());
+    }
+
+    // One producer, one worker thread; the producer retries when the ring is full
+    static void worker(long events) throws InterruptedException {
+        EventBus bus = new EventBus(4096);
+        Counter c = new Counter();
+        EventBus.Subscription sub = bus.subscribeWorker(c, "bench-consumer");
+        long start = System.nanoTime();
+        long retries = 0;
+        for (long i = 0; i < events; i++) {
+            while (!bus.publish(EventBus.ENEMY_KILLED, (int) i, 1, i, i)) {
+                retries++;
+                Thread.onSpinWait();
+            }
+        }
+        while (c.count < events) Thread.onSpinWait();
+        long nanos = System.nanoTime() - start;
+        bus.unsubscribe(sub);
+        report("worker", events, nanos, c.count, retries);
+    }
+
+    static void report(String mode, long events, long nanos, long delivered, long fullRing) {
+        System.out.printf("%-12s %6.1f M events/s  (%d delivered, ring full %d times)%n",
+                mode, events / (nanos / 1e3), delivered, fullRing);
+    }
+
+    // Bytes allocated by this thread while publishing and dispatching 1M events
+    static void allocation() {
+        com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        EventBus bus = new EventBus(4096);
+        Counter c = new Counter();
+        bus.subscribe(c);
+        long tid = Thread.currentThread().getId();
+        long before = mx.getThreadAllocatedBytes(tid);
+        for (int i = 0; i < 1_000_000; i++) {
+            bus.publish(EventBus.BULLET_FIRED, i, 0, 0, 0);
+            if ((i & 255) == 255) bus.dispatch();
+        }
+        long after = mx.getThreadAllocatedBytes(tid);
+        System.out.printf("allocated while publishing 1M events: %d bytes%n", after - before);
+    }
+}
@@ -0,0 +1,102 @@
+/**
+ * 16.16 fixed-point math for the sim's fixed-point mode (GameWorld.fixedPoint):
+ * integer sqrt, and sin/cos/atan2 from tables over a binary angle of TURN
+ * units per full turn. Every result is the same on every JVM and CPU, which
+ * Math.sin/cos/atan2 don't promise (they may be intrinsics, 1 ulp either way).
+ *
+ * Entities keep their double columns; in this mode they only ever hold
+ * multiples of 1/65536, which doubles store exactly, and adding two of them
+ * is exact too, so MovementSystem needs no int path of its own.
+ *
+ * Tables are built once with StrictMath, so they are identical everywhere.
+ *
+ * Only the straight chase (flocking off) and the player's aim and shots
+ * use these. FlockingSystem still steers in doubles with Math.sqrt and
+ * only quantizes its output velocities; that stays reproducible because
+ * Math.sqrt, like + - * /, is correctly rounded on every JVM, but its
+ * distances are IEEE ones, not this integer sqrt.
+ */
+public final class Fixed {
+    private Fixed() {}
+
+    static final int SHIFT = 16;
+    static final int ONE = 1 << SHIFT;
+    static final int TURN = 4096;              // binary angle units per turn
+    static final int QUARTER = TURN / 4;
+    private static final int ATAN_STEPS = 1024; // table resolution of y / x in [0, 1]
+    private static final double RADIANS = 2 * Math.PI / TURN;
+
+    private static final int[] SIN = new int[TURN];
+    private static final int[] ATAN = new int[ATAN_STEPS + 1]; // atan(i / STEPS) in angle units, 0 .. TURN / 8
+
+    static {
+        for (int a = 0; a < TURN; a++) SIN[a] = (int) StrictMath.round(StrictMath.sin(a * RADIANS) * ONE);
+        for (int i = 0; i <= ATAN_STEPS; i++) {
+            ATAN[i] = (int) StrictMath.round(StrictMath.atan(i / (double) ATAN_STEPS) / RADIANS);
+        }
+    }
+
+    public static int toFixed(double v) {
+        return (int) Math.round(v * ONE);
+    }
+
+    public static double toDouble(int f) {
+        return f / (double) ONE;
+    }
+
+    // Nearest value a fixed-point run can hold
+    public static double quantize(double v) {
+        return toDouble(toFixed(v));
+    }
+
+    public static int mul(int a, int b) {
+        return (int) ((long) a * b >> SHIFT);
+    }
+
+    // Length of (dx, dy) without overflowing for anything on a map
+    public static int length(int dx, int dy) {
+        return (int) isqrt((long) dx * dx + (long) dy * dy);
+    }
+
+    // floor(sqrt(n)) for n >= 0. The double sqrt is only a first guess: the integer
+    // fix-up makes the result exact, so it can't differ between machines.
+    static long isqrt(long n) {
+        long r = (long) Math.sqrt((double) n);
+        while (r * r > n) r--;
+        while ((r + 1) * (r + 1) <= n) r++;
+        return r;
+    }
+
+    public static int sin(int angle) {
+        return SIN[angle & (TURN - 1)];
+    }
+
+    public static int cos(int angle) {
+        return SIN[(angle + QUARTER) & (TURN - 1)];
+    }
+
+    // Binary angle of (x, y) in [0, TURN); any consistent units work for x and y
+    public static int atan2(int y, int x) {
+        if (x == 0 && y == 0) return 0;
+        long ax = Math.abs((long) x), ay = Math.abs((long) y);
+        int a = ay <= ax
+                ? ATAN[(int) ((ay * ATAN_STEPS + ax / 2) / ax)]
+                : QUARTER - ATAN[(int) ((ax * ATAN_STEPS + ay / 2) / ay)];
+        if (x < 0) a = 2 * QUARTER - a;
+        if (y < 0) a = -a;
+        return a & (TURN - 1);
+    }
+
+    public static double toRadians(int angle) {
+        return angle * RADIANS;
+    }
+
+    public static int fromRadians(double radians) {
+        return (int) Math.round(radians / RADIANS) & (TURN - 1);
+    }
+
+    // Index of the nearest of 'frames' evenly spaced pre-rotated frames (as Sprite.frame does)
+    public static int frame(int angle, int frames) {
+        return (int) (((long) (angle & (TURN - 1)) * frames + TURN / 2) / TURN) % frames;
+    }
+}
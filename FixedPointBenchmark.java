@@ -0,0 +1,178 @@
+/**
+ * Checks and times the fixed-point sim mode (GameWorld.fixedPoint, Fixed).
+ *
+ * Accuracy: table sin/cos/atan2 and the integer sqrt against Math.
+ * Cross-mode: the same seeded bot games in both modes end close together,
+ * fixed-point runs repeat bit for bit and never leave the 16.16 grid;
+ * checked with flocking on and off, since only the straight chase runs
+ * ChaseSystem.runFixed and the integer sqrt.
+ * Speed: the int paths against the double ones they replace, per call and
+ * for a whole chase pass over 'enemies' chasers.
+ *
+ *   java FixedPointBenchmark [games] [enemies] [calls]
+ */
+public class FixedPointBenchmark {
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int enemies = args.length > 1 ? Integer.parseInt(args[1]) : 10_000;
+        int calls = args.length > 2 ? Integer.parseInt(args[2]) : 2_000_000;
+
+        accuracy();
+        crossMode(games, true);
+        crossMode(games, false);
+        speed(enemies, calls);
+    }
+
+    static void accuracy() {
+        GameRandom r = new GameRandom(1);
+        double sinErr = 0, atanErr = 0, sqrtErr = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            int a = r.nextInt(Fixed.TURN);
+            sinErr = Math.max(sinErr, Math.abs(Fixed.toDouble(Fixed.sin(a)) - Math.sin(Fixed.toRadians(a))));
+            sinErr = Math.max(sinErr, Math.abs(Fixed.toDouble(Fixed.cos(a)) - Math.cos(Fixed.toRadians(a))));
+
+            double x = (r.nextDouble() - 0.5) * 4000, y = (r.nextDouble() - 0.5) * 4000;
+            double d = Fixed.toRadians(Fixed.atan2(Fixed.toFixed(y), Fixed.toFixed(x))) - Math.atan2(y, x);
+            d = Math.abs(Math.IEEEremainder(d, 2 * Math.PI));
+            atanErr = Math.max(atanErr, d);
+
+            double len = Math.sqrt(x * x + y * y);
+            if (len > 1) {
+                double got = Fixed.toDouble(Fixed.length(Fixed.toFixed(x), Fixed.toFixed(y)));
+                sqrtErr = Math.max(sqrtErr, Math.abs(got - len) / len);
+            }
+        }
+        System.out.printf("Accuracy: sin/cos within %.2e, atan2 within %.3f deg (one table step is %.3f deg),"
+                + " length within %.2e relative%n", sinErr, Math.toDegrees(atanErr), 360.0 / Fixed.TURN, sqrtErr);
+    }
+
+    static void crossMode(int games, boolean flocking) {
+        long scoreDouble = 0, scoreFixed = 0, ticksDouble = 0, ticksFixed = 0;
+        int repeats = 0, offGrid = 0;
+        for (int g = 0; g < games; g++) {
+            GameWorld d = play(g, false, flocking), f = play(g, true, flocking), f2 = play(g, true, flocking);
+            scoreDouble += d.score;
+            ticksDouble += d.ticks;
+            scoreFixed += f.score;
+            ticksFixed += f.ticks;
+            if (f.ticks == f2.ticks && f.score == f2.score && checksum(f) == checksum(f2)) repeats++;
+            offGrid += offGrid(f);
+        }
+        System.out.printf("Cross-mode, flocking %s, over %d games: double mean score %.1f, %.0f ticks;"
+                + " fixed mean score %.1f, %.0f ticks%n", flocking ? "on" : "off", games, scoreDouble / (double) games, ticksDouble / (double) games,
+                scoreFixed / (double) games, ticksFixed / (double) games);
+        System.out.printf("  fixed-point reruns identical: %d of %d; coordinates off the 16.16 grid: %d%n",
+                repeats, games, offGrid);
+    }
+
+    static GameWorld play(int game, boolean fixedPoint, boolean flocking) {
+        GameWorld world = new GameWorld(0x9E3779B97F4A7C15L + game);
+        world.fixedPoint = fixedPoint;
+        world.flocking = flocking;
+        world.reset(0x9E3779B97F4A7C15L + game); // so the player spawns with the mode on
+        BotController bot = new NearestThreatBot(30);
+        InputFrame input = new InputFrame();
+        while (!world.gameOver && world.ticks < 60 * 60 * 3) {
+            bot.control(world, input);
+            world.step(input);
+        }
+        return world;
+    }
+
+    static long checksum(GameWorld w) {
+        long sum = Double.doubleToLongBits(w.playerCenterX()) * 31 + Double.doubleToLongBits(w.playerCenterY());
+        for (Query q : new Query[] {w.enemies, w.bullets}) {
+            for (int a = 0; a < q.count; a++) {
+                Archetype arch = q.archetypes[a];
+                for (int c = 0; c < arch.chunkCount; c++) {
+                    Chunk ch = arch.chunks[c];
+                    for (int i = 0; i < ch.count; i++) {
+                        sum = sum * 31 + Double.doubleToLongBits(ch.x[i]);
+                        sum = sum * 31 + Double.doubleToLongBits(ch.y[i]);
+                    }
+                }
+            }
+        }
+        return sum;
+    }
+
+    static int offGrid(GameWorld w) {
+        int n = 0;
+        for (Query q : new Query[] {w.enemies, w.bullets}) {
+            for (int a = 0; a < q.count; a++) {
+                Archetype arch = q.archetypes[a];
+                for (int c = 0; c < arch.chunkCount; c++) {
+                    Chunk ch = arch.chunks[c];
+                    for (int i = 0; i < ch.count; i++) {
+                        if (Fixed.quantize(ch.x[i]) != ch.x[i] || Fixed.quantize(ch.y[i]) != ch.y[i]) n++;
+                        if (ch.vx != null && (Fixed.quantize(ch.vx[i]) != ch.vx[i] || Fixed.quantize(ch.vy[i]) != ch.vy[i])) n++;
+                    }
+                }
+            }
+        }
+        return n;
+    }
+
+    static void speed(int enemies, int calls) {
+        GameRandom r = new GameRandom(2);
+        double[] xs = new double[1024], ys = new double[1024];
+        int[] fxs = new int[1024], fys = new int[1024];
+        for (int i = 0; i < 1024; i++) {
+            xs[i] = (r.nextDouble() - 0.5) * 4000;
+            ys[i] = (r.nextDouble() - 0.5) * 4000;
+            fxs[i] = Fixed.toFixed(xs[i]);
+            fys[i] = Fixed.toFixed(ys[i]);
+        }
+
+        System.out.printf("Speed: %d calls each, chase over %d enemies%n", calls, enemies);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            double sink = 0;
+            long t = System.nanoTime();
+            for (int i = 0; i < calls; i++) sink += Math.atan2(ys[i & 1023], xs[i & 1023]);
+            double atan = (System.nanoTime() - t) / (double) calls;
+            long isink = 0;
+            t = System.nanoTime();
+            for (int i = 0; i < calls; i++) isink += Fixed.atan2(fys[i & 1023], fxs[i & 1023]);
+            double fatan = (System.nanoTime() - t) / (double) calls;
+
+            t = System.nanoTime();
+            for (int i = 0; i < calls; i++) sink += Math.cos(xs[i & 1023]) + Math.sin(xs[i & 1023]);
+            double trig = (System.nanoTime() - t) / (double) calls;
+            t = System.nanoTime();
+            for (int i = 0; i < calls; i++) isink += Fixed.cos(fxs[i & 1023]) + Fixed.sin(fxs[i & 1023]);
+            double ftrig = (System.nanoTime() - t) / (double) calls;
+
+            t = System.nanoTime();
+            for (int i = 0; i < calls; i++) sink += Math.sqrt(xs[i & 1023] * xs[i & 1023] + ys[i & 1023] * ys[i & 1023]);
+            double sqrt = (System.nanoTime() - t) / (double) calls;
+            t = System.nanoTime();
+            for (int i = 0; i < calls; i++) isink += Fixed.length(fxs[i & 1023], fys[i & 1023]);
+            double fsqrt = (System.nanoTime() - t) / (double) calls;
+
+            double chase = chase(enemies, false), fchase = chase(enemies, true);
+            System.out.printf("round %d: atan2 %.1f vs %.1f ns, cos+sin %.1f vs %.1f ns, length %.1f vs %.1f ns,"
+                    + " chase %.3f vs %.3f ms/tick (double vs fixed)%s%n",
+                    round, atan, fatan, trig, ftrig, sqrt, fsqrt, chase, fchase, sink == isink ? "!" : "");
+        }
+    }
+
+    static double chase(int enemies, boolean fixedPoint) {
+        GameWorld world = new GameWorld(7);
+        world.setMap(TileMap.generate(64, 64, 1));
+        world.fixedPoint = fixedPoint;
+        world.reset(7);
+        GameRandom r = new GameRandom(42);
+        for (int i = 0; i < enemies; i++) {
+            world.spawnEnemy(r.nextDouble() * world.arenaWidth, r.nextDouble() * world.arenaHeight);
+        }
+        double tx = world.arenaWidth / 2.0, ty = world.arenaHeight / 2.0;
+        int ticks = 200;
+        long t = System.nanoTime();
+        for (int i = 0; i < ticks; i++) {
+            if (fixedPoint) world.chase.runFixed(tx, ty, -GameWorld.FAR, -GameWorld.FAR, GameWorld.FAR, GameWorld.FAR);
+            else world.chase.run(tx, ty);
+        }
+        return (System.nanoTime() - t) / 1e6 / ticks;
+    }
+}
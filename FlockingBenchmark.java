@@ -0,0 +1,69 @@
+/**
+ * Flocking cost at crowd sizes the map can hold: 'enemies' chasers scattered
+ * over a few screens close in on a fixed point for 'ticks' ticks, moved by
+ * MovementSystem and steered by FlockingSystem, against plain ChaseSystem on
+ * the same start. The budget to beat is one 60 Hz tick, 16.7 ms, for the
+ * whole sim, not just this system.
+ *
+ *   java FlockingBenchmark [enemies] [ticks] [radius]
+ */
+public class FlockingBenchmark {
+
+    public static void main(String[] args) {
+        int enemies = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+        double radius = args.length > 2 ? Double.parseDouble(args[2]) : 40;
+
+        System.out.printf("%d enemies, %d ticks, neighbor radius %.0f%n", enemies, ticks, radius);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            GameWorld world = world(enemies);
+            world.flock.radius = radius;
+            double tx = world.arenaWidth / 2.0, ty = world.arenaHeight / 2.0;
+            long start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                world.movement.run();
+                world.flock.run(tx, ty, -GameWorld.FAR, -GameWorld.FAR, GameWorld.FAR, GameWorld.FAR);
+            }
+            double flock = (System.nanoTime() - start) / 1e6 / ticks;
+            double spread = spread(world, tx, ty);
+
+            world = world(enemies);
+            start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                world.movement.run();
+                world.chase.run(tx, ty);
+            }
+            double chase = (System.nanoTime() - start) / 1e6 / ticks;
+
+            System.out.printf("round %d: flocking %.3f ms/tick (%.0f%% of 60 Hz), chase %.3f ms/tick;"
+                    + " mean distance from target %.0f px flocking vs %.0f px chase%n",
+                    round, flock, 100 * flock / (1000 / 60.0), chase, spread, spread(world, tx, ty));
+        }
+    }
+
+    static GameWorld world(int enemies) {
+        GameWorld world = new GameWorld(7);
+        world.setMap(TileMap.generate(64, 64, 1));
+        world.reset(7);
+        GameRandom r = new GameRandom(42);
+        for (int i = 0; i < enemies; i++) {
+            world.spawnEnemy(r.nextDouble() * world.arenaWidth, r.nextDouble() * world.arenaHeight);
+        }
+        return world;
+    }
+
+    // How far the crowd sits from the target: chase piles everyone onto one point
+    static double spread(GameWorld w, double tx, double ty) {
+        double sum = 0;
+        int n = 0;
+        Query q = w.enemies;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                for (int i = 0; i < ch.count; i++, n++) sum += Math.hypot(ch.x[i] + ch.w[i] / 2.0 - tx, ch.y[i] + ch.h[i] / 2.0 - ty);
+            }
+        }
+        return n == 0 ? 0 : sum / n;
+    }
+}
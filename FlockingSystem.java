@@ -0,0 +1,205 @@
+import java.util.Arrays;
+
+/**
+ * Boids-style steering for chasers: seek the target, keep apart from
+ * neighbours (separation), match their heading (alignment) and drift toward
+ * their middle (cohesion). The result is always the chaser's own speed, so
+ * flocking changes where enemies go, not how fast.
+ *
+ * Neighbours come from a uniform grid with cells one radius wide, rebuilt
+ * every tick by counting sort into flat arrays, so each chaser looks at the
+ * 3x3 cells around it instead of every other chaser. At most MAX_NEIGHBORS
+ * are considered, which keeps a crowd pressed against the player bounded.
+ *
+ * Steering is written to the chasers' velocity, which MovementSystem applies
+ * at the start of the next tick; sleeping chasers get zero velocity.
+ */
+public class FlockingSystem {
+    static final int MAX_NEIGHBORS = 16;
+    static final int MAX_CELLS = 1 << 20; // coarser cells rather than a bigger grid
+
+    // tuning; radius in pixels between centers
+    double radius = 40;
+    double seekWeight = 1.0;
+    double separationWeight = 1.5;
+    double alignmentWeight = 0.3;
+    double cohesionWeight = 0.2;
+    boolean fixedPoint = false; // round velocities onto the 16.16 grid (see Fixed)
+
+    private final Query q;
+
+    // awake chasers this tick, in query order
+    private double[] px = new double[1024], py = new double[1024], vx = new double[1024], vy = new double[1024];
+    private double[] speed = new double[1024];
+    private double[] outX = new double[1024], outY = new double[1024];
+    private int[] cellOf = new int[1024];
+    private int count;
+
+    // grid: chasers of cell c are items[cellStart[c] .. cellStart[c + 1]), and their
+    // centers and velocities are copied into the same order so a cell scan reads memory in a row
+    private int[] cellStart = new int[1];
+    private int[] items = new int[1024];
+    private double[] gx = new double[1024], gy = new double[1024], gvx = new double[1024], gvy = new double[1024];
+    private int cols, rows;
+    private double cellSize, originX, originY;
+
+    public FlockingSystem(Ecs ecs) {
+        q = ecs.query(Components.CHASE | Components.POSITION | Components.SIZE | Components.VELOCITY);
+    }
+
+    // Returns how many chasers were awake
+    public int run(double targetX, double targetY, double minX, double minY, double maxX, double maxY) {
+        gather(minX, minY, maxX, maxY);
+        buildGrid();
+        steer(targetX, targetY);
+        scatter(minX, minY, maxX, maxY);
+        return count;
+    }
+
+    private void gather(double minX, double minY, double maxX, double maxY) {
+        count = 0;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (ch.x[i] < minX || ch.x[i] >= maxX || ch.y[i] < minY || ch.y[i] >= maxY) continue;
+                    if (count == px.length) grow();
+                    px[count] = ch.x[i] + ch.w[i] / 2.0;
+                    py[count] = ch.y[i] + ch.h[i] / 2.0;
+                    vx[count] = ch.vx[i];
+                    vy[count] = ch.vy[i];
+                    speed[count] = ch.speed[i];
+                    count++;
+                }
+            }
+        }
+    }
+
+    private void buildGrid() {
+        double x0 = Double.MAX_VALUE, y0 = Double.MAX_VALUE, x1 = -Double.MAX_VALUE, y1 = -Double.MAX_VALUE;
+        for (int k = 0; k < count; k++) {
+            x0 = Math.min(x0, px[k]);
+            y0 = Math.min(y0, py[k]);
+            x1 = Math.max(x1, px[k]);
+            y1 = Math.max(y1, py[k]);
+        }
+        cellSize = Math.max(1, radius);
+        while (count > 0 && ((x1 - x0) / cellSize + 1) * ((y1 - y0) / cellSize + 1) > MAX_CELLS) cellSize *= 2;
+        originX = x0;
+        originY = y0;
+        cols = count == 0 ? 1 : (int) ((x1 - x0) / cellSize) + 1;
+        rows = count == 0 ? 1 : (int) ((y1 - y0) / cellSize) + 1;
+
+        int cells = cols * rows;
+        if (cellStart.length < cells + 1) cellStart = new int[Math.max(cells + 1, cellStart.length * 2)];
+        Arrays.fill(cellStart, 0, cells + 1, 0);
+        for (int k = 0; k < count; k++) {
+            int cell = (int) ((py[k] - originY) / cellSize) * cols + (int) ((px[k] - originX) / cellSize);
+            cellOf[k] = cell;
+            cellStart[cell + 1]++;
+        }
+        for (int c = 0; c < cells; c++) cellStart[c + 1] += cellStart[c];
+        // fill each cell from its start; cellStart[c] ends up at cell c + 1's start, so shift back after
+        for (int k = 0; k < count; k++) items[cellStart[cellOf[k]]++] = k;
+        for (int c = cells; c > 0; c--) cellStart[c] = cellStart[c - 1];
+        cellStart[0] = 0;
+        for (int s = 0; s < count; s++) {
+            int k = items[s];
+            gx[s] = px[k];
+            gy[s] = py[k];
+            gvx[s] = vx[k];
+            gvy[s] = vy[k];
+        }
+    }
+
+    private void steer(double targetX, double targetY) {
+        double r = radius, r2 = r * r;
+        // walk in grid order: neighbours of consecutive chasers are mostly the same cells
+        for (int self = 0; self < count; self++) {
+            int k = items[self];
+            double x = gx[self], y = gy[self];
+            int cx = (int) ((x - originX) / cellSize), cy = (int) ((y - originY) / cellSize);
+
+            double sepX = 0, sepY = 0, alignX = 0, alignY = 0, sumX = 0, sumY = 0;
+            int neighbors = 0;
+            search:
+            for (int row = Math.max(0, cy - 1); row <= Math.min(rows - 1, cy + 1); row++) {
+                // the three cells of a grid row are contiguous in the sorted arrays
+                int first = row * cols + Math.max(0, cx - 1), last = row * cols + Math.min(cols - 1, cx + 1);
+                for (int s = cellStart[first], e = cellStart[last + 1]; s < e; s++) {
+                    if (s == self) continue;
+                    double dx = x - gx[s], dy = y - gy[s];
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 >= r2) continue;
+                    double d = Math.sqrt(d2);
+                    if (d > 0) {
+                        // push away harder the closer they are, fading to nothing at the radius
+                        double push = (1 - d / r) / d;
+                        sepX += dx * push;
+                        sepY += dy * push;
+                    }
+                    alignX += gvx[s];
+                    alignY += gvy[s];
+                    sumX += gx[s];
+                    sumY += gy[s];
+                    if (++neighbors == MAX_NEIGHBORS) break search;
+                }
+            }
+
+            double dx = targetX - x, dy = targetY - y;
+            double dist = Math.sqrt(dx * dx + dy * dy);
+            double sx = dist > 0 ? seekWeight * dx / dist : 0, sy = dist > 0 ? seekWeight * dy / dist : 0;
+            if (neighbors > 0) {
+                sx += separationWeight * sepX;
+                sy += separationWeight * sepY;
+                double sp = speed[k] > 0 ? speed[k] : 1;
+                sx += alignmentWeight * alignX / (neighbors * sp);
+                sy += alignmentWeight * alignY / (neighbors * sp);
+                sx += cohesionWeight * (sumX / neighbors - x) / r;
+                sy += cohesionWeight * (sumY / neighbors - y) / r;
+            }
+            double len = Math.sqrt(sx * sx + sy * sy);
+            outX[k] = len > 0 ? sx / len * speed[k] : 0;
+            outY[k] = len > 0 ? sy / len * speed[k] : 0;
+        }
+    }
+
+    // Same walk as gather(), so the k-th awake chaser gets outX[k], outY[k]
+    private void scatter(double minX, double minY, double maxX, double maxY) {
+        int k = 0;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (ch.x[i] < minX || ch.x[i] >= maxX || ch.y[i] < minY || ch.y[i] >= maxY) {
+                        ch.vx[i] = 0; // asleep: stays put
+                        ch.vy[i] = 0;
+                        continue;
+                    }
+                    ch.vx[i] = fixedPoint ? Fixed.quantize(outX[k]) : outX[k];
+                    ch.vy[i] = fixedPoint ? Fixed.quantize(outY[k]) : outY[k];
+                    k++;
+                }
+            }
+        }
+    }
+
+    private void grow() {
+        int n = px.length * 2;
+        px = Arrays.copyOf(px, n);
+        py = Arrays.copyOf(py, n);
+        vx = Arrays.copyOf(vx, n);
+        vy = Arrays.copyOf(vy, n);
+        speed = Arrays.copyOf(speed, n);
+        outX = new double[n];
+        outY = new double[n];
+        cellOf = new int[n];
+        items = new int[n];
+        gx = new double[n];
+        gy = new double[n];
+        gvx = new double[n];
+        gvy = new double[n];
+    }
+}
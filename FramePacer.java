@@ -0,0 +1,132 @@
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Paces a loop to a target rate off System.nanoTime deadlines.
+ *
+ * awaitNext() parks until shortly before the next deadline, then spins the
+ * rest of the way, since parkNanos alone can oversleep by a scheduler
+ * quantum. Deadlines advance by exactly one interval each time, so small
+ * wake-up errors don't accumulate into drift; if the loop falls more than
+ * MAX_LATE intervals behind (a GC pause, a debugger) it re-anchors to now
+ * rather than racing to catch up.
+ *
+ * Every interval is compared with the target and the absolute error goes
+ * into a histogram. A rate of 0 or less means unlocked: no waiting, and only
+ * the achieved rate is tracked.
+ */
+public class FramePacer {
+    static final long SPIN_NANOS = 1_000_000; // park until this close to the deadline, then spin
+    static final int MAX_LATE = 5;
+
+    // histogram bucket upper bounds for |actual - target| interval, microseconds
+    static final long[] BUCKET_MICROS = {50, 100, 250, 500, 1000, 2000, 4000, 8000, Long.MAX_VALUE};
+    static final String[] BUCKET_LABELS = {"<50us", "<100us", "<250us", "<500us", "<1ms", "<2ms", "<4ms", "<8ms", ">=8ms"};
+
+    private long intervalNanos; // 0 = unlocked
+    private long deadline;
+    private long last;
+
+    private final long[] histogram = new long[BUCKET_MICROS.length];
+    private long samples, sumErrorNanos, maxErrorNanos, sumIntervalNanos, reanchors;
+
+    public FramePacer(double hz) {
+        setRate(hz);
+    }
+
+    public void setRate(double hz) {
+        intervalNanos = hz > 0 ? Math.round(1e9 / hz) : 0;
+        reset();
+    }
+
+    public boolean isUnlocked() {
+        return intervalNanos == 0;
+    }
+
+    public double targetHz() {
+        return intervalNanos == 0 ? 0 : 1e9 / intervalNanos;
+    }
+
+    // Start a fresh run: the next awaitNext() returns one interval from now
+    public void reset() {
+        last = System.nanoTime();
+        deadline = last + intervalNanos;
+        Arrays.fill(histogram, 0);
+        samples = sumErrorNanos = maxErrorNanos = sumIntervalNanos = reanchors = 0;
+    }
+
+    // Block until the next deadline; returns the nanoTime it woke at
+    public long awaitNext() {
+        long now = System.nanoTime();
+        if (intervalNanos > 0) {
+            if (now - deadline > MAX_LATE * intervalNanos) {
+                deadline = now; // far behind: drop the lost time instead of bursting
+                reanchors++;
+            }
+            long park = deadline - now - SPIN_NANOS;
+            if (park > 0) LockSupport.parkNanos(park);
+            while ((now = System.nanoTime()) < deadline) Thread.onSpinWait();
+            deadline += intervalNanos;
+        }
+        record(now - last);
+        last = now;
+        return now;
+    }
+
+    private void record(long interval) {
+        samples++;
+        sumIntervalNanos += interval;
+        if (intervalNanos == 0) return;
+        long error = Math.abs(interval - intervalNanos);
+        sumErrorNanos += error;
+        maxErrorNanos = Math.max(maxErrorNanos, error);
+        long micros = error / 1000;
+        int b = 0;
+        while (micros >= BUCKET_MICROS[b]) b++;
+        histogram[b]++;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double achievedHz() {
+        return sumIntervalNanos == 0 ? 0 : samples * 1e9 / sumIntervalNanos;
+    }
+
+    public double meanErrorMillis() {
+        return samples == 0 ? 0 : sumErrorNanos / 1e6 / samples;
+    }
+
+    public double maxErrorMillis() {
+        return maxErrorNanos / 1e6;
+    }
+
+    public long reanchors() {
+        return reanchors;
+    }
+
+    public int buckets() {
+        return histogram.length;
+    }
+
+    public long bucketCount(int bucket) {
+        return histogram[bucket];
+    }
+
+    public String report(String name) {
+        StringBuilder sb = new StringBuilder();
+        if (intervalNanos == 0) {
+            return sb.append(String.format("%s pacing: unlocked, %.1f Hz achieved over %d intervals%n",
+                    name, achievedHz(), samples)).toString();
+        }
+        sb.append(String.format("%s pacing: target %.2f Hz, achieved %.2f Hz, |error| mean %.3f ms, max %.3f ms, %d re-anchors%n",
+                name, targetHz(), achievedHz(), meanErrorMillis(), maxErrorMillis(), reanchors));
+        long max = 1;
+        for (long c : histogram) max = Math.max(max, c);
+        for (int b = 0; b < histogram.length; b++) {
+            sb.append(String.format("  %-7s %8d %s%n", BUCKET_LABELS[b], histogram[b], "#".repeat((int) (50 * histogram[b] / max))));
+        }
+        return sb.toString();
+    }
+}
@@ -1,35 +1,87 @@
 import java.awt.*;
 import java.awt.event.*;
-import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 import javax.imageio.ImageIO;
 import javax.swing.*;
 
 /**
  * Main launcher for the game.
+ *
+ *   java Game [--fps N|unlocked] [--tick-rate N] [--record FILE.jfr] [--sprite-cache-mb N]
+ *             [--probe-pipelines] [--pipeline NAME] [--low-latency]
+ *
+ * --record starts a Flight Recorder recording with the shipped profile
+ * (spacesurvivor.jfc) and writes it to FILE.jfr when the game exits.
+ * The Java2D pipeline is probed on first start and remembered (see
+ * RenderBackend); --probe-pipelines probes again, --pipeline picks one.
+ * --low-latency starts games in the low-latency mode (F10 in game): each
+ * frame samples input, ticks and presents back to back, at the tick rate.
  */
 public class Game {
+    static double fps = 60;                           // render rate; 0 = unlocked
+    static double tickRate = SimulationLoop.TICK_RATE;
+    static boolean lowLatency = false;
+
     public static void main(String[] args) {
+        boolean reprobe = false;
+        String pipeline = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--fps":       fps = args[++i].equals("unlocked") ? 0 : Double.parseDouble(args[i]); break;
+                case "--tick-rate": tickRate = Double.parseDouble(args[++i]); break;
+                case "--record":    GameRecording.start(Paths.get(GameRecording.PROFILE), Paths.get(args[++i])); break;
+                case "--sprite-cache-mb": SpriteManager.cacheCap = Long.parseLong(args[++i]) << 20; break;
+                case "--probe-pipelines": reprobe = true; break;
+                case "--pipeline":  pipeline = args[++i]; break;
+                case "--low-latency": lowLatency = true; break;
+                default:
+                    System.err.println("Unknown option: " + args[i]);
+                    System.err.println("Options: --fps N|unlocked --tick-rate N --record FILE.jfr --sprite-cache-mb N"
+                            + " --probe-pipelines --pipeline NAME --low-latency");
+                    System.exit(1);
+            }
+        }
+        RenderBackend.select(reprobe, pipeline); // before anything starts AWT
         SwingUtilities.invokeLater(() -> new GameMain());
     }
 }
 
 /**
  * Main window of the game.
+ *
+ * The menu and both game panels are built once and kept for the whole
+ * process: switching shows one and stops the other, and a game panel's
+ * world is reset in place when it starts, so going between menu and game
+ * (or restarting) costs no construction, image decoding or cold code.
+ * Each switch is timed from the request to the first frame painted after
+ * it and printed (the game's F3 overlay shows the last one).
  */
 class GameMain extends JFrame {
     private StartMenuPanel startMenuPanel;
-    private GamePanel gamePanel;
+    private GamePanel gamePanel, stressPanel; // created on first use
+    private GamePanel current;
+
+    // transition timing (EDT only)
+    private String transition;
+    private long transitionStart;
+    private String lastTransition = "none yet";
+    private double lastTransitionMillis;
 
     public GameMain() {
         super("Space Survivor");
         setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
-        setResizable(false);
+        setResizable(true); // panels scale their contents to whatever size we get
 
         SpriteManager.loadSprites();
+        SoundManager.loadSounds();
         showStartMenu();
 
         pack();
@@ -38,31 +90,96 @@ class GameMain extends JFrame {
     }
 
     public void showStartMenu() {
-        if (gamePanel != null) {
-            getContentPane().remove(gamePanel);
-            gamePanel.stopGame();
-            gamePanel = null;
+        if (current != null) {
+            beginTransition("game -> menu");
+            getContentPane().remove(current);
+            current.stopGame();
+            current = null;
         }
 
-        startMenuPanel = new StartMenuPanel(this);
+        if (startMenuPanel == null) startMenuPanel = new StartMenuPanel(this);
         getContentPane().add(startMenuPanel);
-        pack();
+        startMenuPanel.startAnimation();
+        if (!isFullscreen()) pack();
         revalidate();
         repaint();
     }
 
     public void showGamePanel() {
-        if (startMenuPanel != null) {
+        if (gamePanel == null) gamePanel = new GamePanel(this);
+        show(gamePanel, "menu -> game");
+    }
+
+    // The Options entry: the stress-test scene (see StressTest)
+    public void showStressTest() {
+        if (stressPanel == null) stressPanel = new GamePanel(this, true);
+        show(stressPanel, "menu -> stress test");
+    }
+
+    private void show(GamePanel panel, String what) {
+        beginTransition(what);
+        WarmUp.stop();
+        if (startMenuPanel != null && startMenuPanel.getParent() != null) {
             getContentPane().remove(startMenuPanel);
-            startMenuPanel = null;
+            startMenuPanel.stopAnimation();
+        }
+        if (current != null) {
+            getContentPane().remove(current);
+            current.stopGame();
         }
 
-        gamePanel = new GamePanel(this);
-        getContentPane().add(gamePanel);
-        pack();
+        current = panel;
+        getContentPane().add(current);
+        if (!isFullscreen()) pack();
         revalidate();
         repaint();
-        gamePanel.startGame();
+        current.startGame();
+    }
+
+    // Start timing a switch; the next transitionShown() ends it
+    void beginTransition(String what) {
+        transition = what;
+        transitionStart = System.nanoTime();
+    }
+
+    // Called by a panel when it paints a frame that reflects the switch
+    void transitionShown() {
+        if (transition == null) return;
+        lastTransitionMillis = (System.nanoTime() - transitionStart) / 1e6;
+        lastTransition = transition;
+        transition = null;
+        System.out.printf("%s: %.1f ms to first frame%n", lastTransition, lastTransitionMillis);
+    }
+
+    String lastTransition() {
+        return lastTransition;
+    }
+
+    double lastTransitionMillis() {
+        return lastTransitionMillis;
+    }
+
+    public boolean isFullscreen() {
+        return getGraphicsConfiguration().getDevice().getFullScreenWindow() == this;
+    }
+
+    // Exclusive fullscreen on the current screen; the panels scale to fit
+    public void toggleFullscreen() {
+        GraphicsDevice device = getGraphicsConfiguration().getDevice();
+        if (!device.isFullScreenSupported()) return;
+
+        boolean enter = !isFullscreen();
+        dispose(); // decoration can only change while the frame isn't displayable
+        setUndecorated(enter);
+        if (enter) {
+            device.setFullScreenWindow(this);
+        } else {
+            device.setFullScreenWindow(null);
+            pack();
+            setLocationRelativeTo(null);
+        }
+        setVisible(true);
+        if (current != null) current.requestFocusInWindow();
     }
 }
 
@@ -70,9 +187,12 @@ class GameMain extends JFrame {
  * Animated Start Menu Panel.
  */
 class StartMenuPanel extends JPanel {
+    private static final Font TITLE_FONT = new Font("Impact", Font.BOLD, 90);
+    private static BufferedImage backgroundImage; // decoded once per process
+    private static boolean backgroundLoaded;
+
     private GameMain gameMain;
-    private BufferedImage backgroundImage;
-    private Timer animationTimer;
+    private final Timer animationTimer = new Timer(30, e -> animate());
 
     private double titleScale = 1.0;
     private double scaleDirection = 0.005;
@@ -83,10 +203,12 @@ class StartMenuPanel extends JPanel {
         setPreferredSize(new Dimension(1024, 576));
         loadBackgroundImage();
         initComponents();
-        startAnimation();
+        WarmUp.start(); // compile the game's hot paths while the player is in the menu
     }
 
-    private void loadBackgroundImage() {
+    private static void loadBackgroundImage() {
+        if (backgroundLoaded) return;
+        backgroundLoaded = true;
         try {
             backgroundImage = ImageIO.read(new File("menu_background.png"));
         } catch (IOException e) {
@@ -105,7 +227,7 @@ class StartMenuPanel extends JPanel {
         menuItemsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         menuItemsPanel.add(createMenuItem("Load Game", null));
         menuItemsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
-        menuItemsPanel.add(createMenuItem("Options", null));
+        menuItemsPanel.add(createMenuItem("Options", () -> gameMain.showStressTest()));
         menuItemsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
         menuItemsPanel.add(createMenuItem("Quit", this::showExitConfirmation));
 
@@ -151,17 +273,23 @@ class StartMenuPanel extends JPanel {
         return label;
     }
 
-    private void startAnimation() {
-        animationTimer = new Timer(30, e -> {
-            titleScale += scaleDirection;
-            if (titleScale > 1.05 || titleScale < 0.95) scaleDirection *= -1;
+    // The menu is kept while a game runs; it only animates while shown
+    public void startAnimation() {
+        animationTimer.start();
+    }
+
+    public void stopAnimation() {
+        animationTimer.stop();
+    }
+
+    private void animate() {
+        titleScale += scaleDirection;
+        if (titleScale > 1.05 || titleScale < 0.95) scaleDirection *= -1;
 
-            backgroundYOffset++;
-            if (backgroundYOffset >= getHeight()) backgroundYOffset = 0;
+        backgroundYOffset++;
+        if (backgroundYOffset >= getHeight()) backgroundYOffset = 0;
 
-            repaint();
-        });
-        animationTimer.start();
+        repaint();
     }
 
     private void showExitConfirmation() {
@@ -189,8 +317,7 @@ class StartMenuPanel extends JPanel {
         }
 
         String title = "Space Survivor";
-        Font baseFont = new Font("Impact", Font.BOLD, 90);
-        Font scaledFont = baseFont.deriveFont((float) (baseFont.getSize() * titleScale));
+        Font scaledFont = TITLE_FONT.deriveFont((float) (TITLE_FONT.getSize() * titleScale));
         g2d.setFont(scaledFont);
         g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
 
@@ -203,35 +330,103 @@ class StartMenuPanel extends JPanel {
         g2d.drawString(title, x + 5, y + 5);
         g2d.setColor(new Color(170, 210, 255));
         g2d.drawString(title, x, y);
+        gameMain.transitionShown();
     }
 }
 
 /**
  * Game Panel with game logic.
  */
-class GamePanel extends JPanel implements ActionListener, KeyListener {
-    private Timer timer;
-    private Player player;
-    private ArrayList<Bullet> bullets = new ArrayList<>();
-    private ArrayList<Enemy> enemies = new ArrayList<>();
+class GamePanel extends JPanel implements KeyListener {
+    private GameWorld world = new GameWorld(System.nanoTime());
     private GameMain mainFrame;
 
-    private int score = 0;
-    private boolean gameOver = false;
-
-    public static final int WIDTH = 800;
-    public static final int HEIGHT = 600;
-
-    private int mouseX, mouseY;
+    public static final int WIDTH = GameWorld.WIDTH;
+    public static final int HEIGHT = GameWorld.HEIGHT;
+
+    // the world ticks on its own thread; we only post input to it and draw its snapshots
+    private SimulationLoop sim;
+    private RenderSnapshot frame;
+    private RenderSystem renderer = new RenderSystem();
+
+    // frame-time driven quality scaling + F3 stats
+    private QualityGovernor quality = new QualityGovernor(16.0);
+    private DebugOverlay debugOverlay = new DebugOverlay();
+    private BufferedImage worldBuffer;
+    private int frames, fps;
+    private long fpsWindowStart = System.nanoTime();
+    private SteadyStateMeter steadyState = new SteadyStateMeter();
+
+    // HUD text comes from glyph atlases: no per-frame Strings or glyph layout.
+    // They are rasterized for the present scale (rebuilt when the window changes it)
+    // and copied 1:1 at device pixels, never stretched with the world buffer
+    private static final Font HUD_FONT = new Font("Arial", Font.BOLD, 20);
+    private static final Font TITLE_FONT = new Font("Arial", Font.BOLD, 50);
+    private static final Font PROMPT_FONT = new Font("Arial", Font.PLAIN, 20);
+    private BitmapFont hudFont, titleFont, promptFont;
+    private double hudScale; // device pixels per logical pixel the fonts were built for
+
+    // the arena is a large tile map; we see the WIDTH x HEIGHT part around the player
+    // (the sim moves the camera; this one just carries the snapshot's position)
+    private Camera camera = new Camera(WIDTH, HEIGHT);
+    private TileRenderer tiles = new TileRenderer();
+    private static ParallelRasterizer parallelRaster; // created on first use (F8), shared by later games
+    private int chunksDrawn;
+
+    // where the logical WIDTH x HEIGHT frame lands on the panel (letterboxed)
+    private int viewX, viewY, viewW = WIDTH, viewH = HEIGHT;
+
+    // frames are paced by our own thread off nanoTime deadlines (F4 toggles unlocked);
+    // a Swing Timer is too coarse and coalesces under load. At most one paint is queued
+    // on the EDT at a time: a locked frame that finds the last one still queued is skipped.
+    private final FramePacer renderPacer = new FramePacer(Game.fps);
+    private final AtomicBoolean paintQueued = new AtomicBoolean();
+    private final Runnable paintNow = this::paintNow;
+    private Thread renderThread;
+    private volatile boolean rendering;
+    private volatile boolean toggleUnlocked; // the pacer is the render thread's; changes go through it
+    private volatile long skippedFrames;
+
+    // input-to-photon latency of key changes and clicks (EDT only). In low-latency mode (F10) the
+    // render thread ticks the sim itself right before each frame instead of a sim thread running
+    // on its own clock; it also switches modes, since only it may step the sim.
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private long lastInputNanos;
+    private volatile boolean toggleLowLatency;
+
+    // the stress-test scene drives the sim through autoplay and gets every frame's timings;
+    // each run gets a fresh StressTest
+    private final boolean stressScene;
+    private StressTest stress;
+    private long stressTick = -1;
+    private String stressSummary;
 
     public GamePanel(GameMain mainFrame) {
+        this(mainFrame, false);
+    }
+
+    // Built once and reused: startGame() resets the world in place
+    public GamePanel(GameMain mainFrame, boolean stressScene) {
         this.mainFrame = mainFrame;
+        this.stressScene = stressScene;
         setPreferredSize(new Dimension(WIDTH, HEIGHT));
         setBackground(Color.BLACK);
         setFocusable(true);
         requestFocusInWindow();
 
-        player = new Player(WIDTH / 2, HEIGHT / 2);
+        world.setMap(loadMap());
+        renderer.setTextures(SpriteManager.player, SpriteManager.bullet, SpriteManager.enemy);
+        world.events.subscribe(new GameAudio(world));
+        sim = new SimulationLoop(world);
+        if (Game.lowLatency) {
+            sim.setDriven(true);
+            renderPacer.setRate(Game.tickRate);
+        }
+        if (stressScene) {
+            StressTest.setUp(world);
+            sim.setAutoplay(true);
+            debugOverlay.toggle();
+        }
 
         // Key listener (this)
         addKeyListener(this);
@@ -240,8 +435,7 @@ class GamePanel extends JPanel implements ActionListener, KeyListener {
         addMouseMotionListener(new MouseMotionAdapter() {
             @Override
             public void mouseMoved(MouseEvent e) {
-                mouseX = e.getX();
-                mouseY = e.getY();
+                sim.aim(toLogicalX(e.getX()), toLogicalY(e.getY()));
             }
         });
 
@@ -249,375 +443,462 @@ class GamePanel extends JPanel implements ActionListener, KeyListener {
         addMouseListener(new MouseAdapter() {
             @Override
             public void mousePressed(MouseEvent e) {
-                // offset from center toward front of ship
-                double bulletX = player.x + player.width / 2 + Math.cos(player.angle) * player.width / 2;
-                double bulletY = player.y + player.height / 2 + Math.sin(player.angle) * player.height / 2;
-
-                double angle = Math.atan2(
-                    e.getY() - (player.y + player.height / 2.0),
-                    e.getX() - (player.x + player.width / 2.0)
-                );
-
-                bullets.add(new Bullet(bulletX - 2, bulletY - 2, angle)); // -3 centers bullet
+                sim.click(toLogicalX(e.getX()), toLogicalY(e.getY()), LatencyHistogram.eventNanos(e));
             }
         });
-        
-        timer = new Timer(16, this); // ~60fps
     }
 
     public void startGame() {
-        // reset state if needed
-        bullets.clear();
-        enemies.clear();
-        score = 0;
-        gameOver = false;
-        player.x = WIDTH / 2.0;
-        player.y = HEIGHT / 2.0;
-        player.health = player.maxHealth;
-        timer.start();
+        if (stressScene) {
+            stress = new StressTest();
+            stressTick = -1;
+            stressSummary = null;
+            sim.setBot(stress);
+        } else {
+            sim.setAutoplay(false); // F2 from the last game doesn't carry over
+        }
+        sim.start(System.nanoTime());
+        steadyState.start(System.nanoTime());
+        rendering = true;
+        renderThread = new Thread(this::paceFrames, "render-pacer");
+        renderThread.setDaemon(true);
+        renderThread.start();
         requestFocusInWindow(); // Ensure focus for key events
     }
     
     public void stopGame() {
-        if (timer != null && timer.isRunning()) {
-            timer.stop();
+        rendering = false;
+        if (renderThread != null) {
+            renderThread.interrupt();
+            try {
+                renderThread.join(); // it may be stepping the sim (low-latency mode)
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            renderThread = null;
+            System.out.print(renderPacer.report("Render"));
+            System.out.println(skippedFrames + " frames skipped (previous paint still queued)");
+        }
+        sim.stop();
+        // driven, the render thread ticked and the sim's pacer sat idle (or holds an earlier threaded stretch)
+        if (!sim.isDriven()) System.out.print(sim.pacer().report("Tick"));
+        System.out.print(latency.report(sim.isDriven() ? "Input (low-latency)" : "Input"));
+        latency.reset();
+    }
+
+    // render-pacer thread: hand the EDT one paint per frame deadline
+    private void paceFrames() {
+        renderPacer.reset();
+        while (rendering) {
+            if (toggleLowLatency) {
+                toggleLowLatency = false;
+                sim.setDriven(!sim.isDriven());
+                renderPacer.setRate(sim.isDriven() ? Game.tickRate : Game.fps);
+            }
+            if (toggleUnlocked && !sim.isDriven()) { // driven, the frame rate is the tick rate
+                toggleUnlocked = false;
+                renderPacer.setRate(renderPacer.isUnlocked() ? (Game.fps > 0 ? Game.fps : 60) : 0);
+            }
+            if (sim.isDriven()) {
+                // no frame queued behind another: wait for the last paint, then sample input,
+                // tick and present back to back
+                while (paintQueued.get() && rendering) LockSupport.parkNanos(20_000);
+                renderPacer.awaitNext();
+                if (!rendering) break;
+                sim.step();
+                paintQueued.set(true);
+                SwingUtilities.invokeLater(paintNow);
+                continue;
+            }
+            if (renderPacer.isUnlocked()) {
+                // as fast as the EDT can paint: wait for the last frame, not a deadline
+                while (paintQueued.get() && rendering) LockSupport.parkNanos(20_000);
+            }
+            renderPacer.awaitNext();
+            if (paintQueued.compareAndSet(false, true)) {
+                SwingUtilities.invokeLater(paintNow);
+            } else {
+                skippedFrames++;
+            }
         }
     }
 
-    @Override
-    public void actionPerformed(ActionEvent e) {
-        if (!gameOver) {
-            // update player (rotation uses current mouse pos)
-            player.update(mouseX, mouseY);
-
-            // update bullets (safe removal using index loop)
-            for (int i = bullets.size() - 1; i >= 0; i--) {
-                Bullet b = bullets.get(i);
-                b.update();
-                if (b.isOffScreen(WIDTH, HEIGHT)) bullets.remove(i);
-            }
+    private void paintNow() {
+        paintImmediately(0, 0, getWidth(), getHeight());
+        Toolkit.getDefaultToolkit().sync(); // flush now rather than whenever the window system gets to it
+        // the first frame on screen with the latest input in it
+        if (frame != null && frame.inputNanos != 0 && frame.inputNanos != lastInputNanos) {
+            latency.record(System.nanoTime() - frame.inputNanos);
+            lastInputNanos = frame.inputNanos;
+        }
+        paintQueued.set(false);
+    }
 
-            // spawn enemies randomly from any edge (low chance each frame)
-            if (Math.random() < 0.02) {
-                spawnEnemyAtEdge();
-            }
 
-            // update enemies and make them chase player
-            for (Enemy en : enemies) {
-                en.chase(player.x + player.width / 2.0, player.y + player.height / 2.0);
+    // world.map if present, else a generated one
+    private static TileMap loadMap() {
+        Path file = Paths.get("world.map");
+        if (Files.exists(file)) {
+            try {
+                return TileMap.load(file);
+            } catch (IOException | IllegalArgumentException e) {
+                System.err.println("Could not load 'world.map', using a generated map: " + e.getMessage());
             }
+        }
+        return TileMap.generate(128, 128, 1);
+    }
 
-            // bullet-enemy collisions (safe removal with iterators)
-            for (int i = enemies.size() - 1; i >= 0; i--) {
-                Enemy en = enemies.get(i);
-                Rectangle enemyRect = new Rectangle((int) en.x, (int) en.y, en.width, en.height);
-
-                boolean destroyed = false;
-                for (int j = bullets.size() - 1; j >= 0; j--) {
-                    Bullet b = bullets.get(j);
-                    Rectangle bulletRect = new Rectangle((int) b.x, (int) b.y, b.size, b.size);
-                    if (enemyRect.intersects(bulletRect)) {
-                        // remove both
-                        enemies.remove(i);
-                        bullets.remove(j);
-                        score += 10;
-                        destroyed = true;
-                        break;
-                    }
-                }
-                if (destroyed) continue;
+    @Override
+    public void paintComponent(Graphics g) {
+        long start = System.nanoTime();
+        GameEvents.Paint paintEvent = GameEvents.PAINT.isEnabled() ? new GameEvents.Paint() : null;
+        if (paintEvent != null) paintEvent.begin();
+        super.paintComponent(g);
+
+        // newest finished tick; the sim is already working on the next one
+        frame = sim.latest();
+        MipChain.nextFrame();
+        camera.x = frame.cameraX;
+        camera.y = frame.cameraY;
+
+        updateViewport();
+
+        // World is drawn once at the logical size (times the governor's render scale),
+        // then presented with a single scaled blit, whatever the window size
+        double scale = quality.renderScale();
+        int w = (int) Math.ceil(WIDTH * scale), h = (int) Math.ceil(HEIGHT * scale);
+        boolean software = renderer.wantsSoftware(); // blitter layers need an int[] they can write to
+        if (worldBuffer == null || worldBuffer.getWidth() != w || worldBuffer.getHeight() != h
+                || software != (worldBuffer.getType() == BufferedImage.TYPE_INT_ARGB_PRE)) {
+            worldBuffer = software
+                    ? new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB_PRE)
+                    : getGraphicsConfiguration().createCompatibleImage(w, h);
+        }
+        renderer.setTarget(software ? worldBuffer : null, scale);
+        Graphics2D wg = worldBuffer.createGraphics();
+        wg.scale(scale, scale);
+        drawWorld(wg);
+        wg.dispose();
+
+        Graphics2D g2 = (Graphics2D) g;
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, quality.interpolation());
+        g2.drawImage(worldBuffer, viewX, viewY, viewW, viewH, null);
+
+        // HUD goes on top untransformed, at device pixels, so text stays sharp at any size
+        double presentScale = viewW / (double) WIDTH;
+        if (presentScale != hudScale) {
+            hudScale = presentScale;
+            hudFont = new BitmapFont(HUD_FONT, Color.WHITE, presentScale);
+            titleFont = new BitmapFont(TITLE_FONT, Color.RED, presentScale);
+            promptFont = new BitmapFont(PROMPT_FONT, Color.RED, presentScale);
+        }
+        Graphics2D hud = (Graphics2D) g.create();
+        hud.translate(viewX, viewY);
+        drawHud(hud);
+        hud.dispose();
+
+        if (!frame.gameOver) mainFrame.transitionShown(); // the first frame of a new game ends a switch
+
+        long now = System.nanoTime();
+        frames++;
+        if (now - fpsWindowStart >= 1_000_000_000L) {
+            fps = frames;
+            frames = 0;
+            fpsWindowStart = now;
+        }
+
+        if (stress != null) {
+            if (frame.tick != stressTick) {
+                stress.recordTick(frame.tickNanos);
+                stressTick = frame.tick;
             }
+            stress.recordFrame(now - start);
+            if (stress.isDone() && stressSummary == null) stressSummary = stress.finish(true); // writes the results file once
+        }
 
-            // player-enemy collision & enemy reaches bottom -> game over
-            Rectangle playerRect = new Rectangle((int) player.x, (int) player.y, player.width, player.height);
-            for (int i = enemies.size() - 1; i >= 0; i--) {
-                Enemy en = enemies.get(i);
-                Rectangle enemyRect = new Rectangle((int) en.x, (int) en.y, en.width, en.height);
-                if (enemyRect.intersects(playerRect)) {
-                    player.takeDamage(20); // lose 20 HP per hit (tweak as you like)
-
-                    // remove the enemy so it doesn't keep draining health every frame
-                    enemies.remove(i);
-                    break;
-                }
-                if (en.y > HEIGHT) {
-                    gameOver = true;
-                    break;
+        if (debugOverlay.isVisible()) {
+            debugOverlay.begin(g, viewX + 10, viewY + 60);
+            if (stress != null) {
+                int s = stress.stage();
+                debugOverlay.text("Stress: stage ").number(s + 1).text("/").number(StressTest.ENTITIES.length).text(", ")
+                        .number(StressTest.ENTITIES[s]).text(" entities, ").fixed(stress.stageSecondsLeft(), 1).text(" s left").endLine();
+                debugOverlay.text("Stage so far: ").fixed(stress.fps(s), 1).text(" fps, tick ")
+                        .fixed(stress.tickMillis(s), 2).text(" ms, paint ").fixed(stress.renderMillis(s), 2).text(" ms").endLine();
+                debugOverlay.text("Heap: ").number(stress.heapUsed() >> 20).text(" MB of ")
+                        .number(Runtime.getRuntime().maxMemory() >> 20).text(" MB").endLine();
+            }
+            debugOverlay.text("FPS: ").number(fps).endLine();
+            if (renderPacer.isUnlocked()) {
+                debugOverlay.line("Pacing: unlocked (F4)");
+            } else {
+                debugOverlay.text("Pacing: ").fixed(renderPacer.targetHz(), 1).text(" Hz, jitter ")
+                        .fixed(renderPacer.meanErrorMillis(), 3).text(" ms avg, ")
+                        .fixed(renderPacer.maxErrorMillis(), 3).text(" max, ").number(skippedFrames).text(" skipped").endLine();
+                debugOverlay.text("Jitter:");
+                for (int b = 0; b < renderPacer.buckets(); b++) {
+                    debugOverlay.text(" ").text(FramePacer.BUCKET_LABELS[b]).text(" ").number(renderPacer.bucketCount(b));
                 }
+                debugOverlay.endLine();
             }
-
-            // check if player health is 0
-            if (player.health <= 0) {
-                gameOver = true;
+            debugOverlay.text("Frame: ").fixed(quality.averageFrameMillis(), 2)
+                    .text(" ms (budget ").fixed(quality.budgetMillis(), 1).text(")").endLine();
+            debugOverlay.text("Quality: ").text(quality.levelName()).text(" x").fixed(quality.renderScale(), 2)
+                    .text(", effects ").text(quality.effectName()).endLine();
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            Window window = SwingUtilities.getWindowAncestor(this);
+            java.awt.image.BufferStrategy strategy = window == null ? null : window.getBufferStrategy();
+            debugOverlay.text("Pipeline: ").text(RenderBackend.chosen()).text(" (").text(RenderBackend.source()).text(")").endLine();
+            debugOverlay.text("Accelerated: back buffer ")
+                    .text(strategy == null ? "-" : strategy.getCapabilities().getBackBufferCapabilities().isAccelerated() ? "yes" : "no")
+                    .text(", world buffer ").text(RenderBackend.accelerated(worldBuffer, gc))
+                    .text(", tiles ").number(tiles.acceleratedChunks(gc)).text("/").number(tiles.cachedChunks())
+                    .text(", sprites ").number(SpriteManager.acceleratedLevels(gc)).text("/").number(SpriteManager.residentLevels())
+                    .endLine();
+            debugOverlay.text("View: ").number(WIDTH).text("x").number(HEIGHT)
+                    .text(" -> ").number(viewW).text("x").number(viewH).endLine();
+            debugOverlay.text("Last switch: ").text(mainFrame.lastTransition()).text(", ")
+                    .fixed(mainFrame.lastTransitionMillis(), 1).text(" ms").endLine();
+            debugOverlay.text("Sim: tick ").number(frame.tick).text(", ").fixed(frame.tickNanos / 1e6, 2).text(" ms").endLine();
+            if (sim.isAutoplay()) debugOverlay.line("Autoplay: ON");
+            debugOverlay.text("Input latency").text(sim.isDriven() ? " (low-latency, F10): " : " (F10 for low-latency): ")
+                    .number(latency.percentileMillis(0.5)).text(" ms p50, ").number(latency.percentileMillis(0.95))
+                    .text(" p95, ").fixed(latency.maxMillis(), 1).text(" max, ").number(latency.samples()).text(" samples").endLine();
+            debugOverlay.text("Latency:");
+            for (int b = 0; b < latency.buckets(); b++) {
+                debugOverlay.text(" ").text(LatencyHistogram.BUCKET_LABELS[b]).text(" ").number(latency.bucketCount(b));
             }
-
-            if (gameOver) {
-                timer.stop();
+            debugOverlay.endLine();
+            debugOverlay.text("Layers:");
+            for (int layer = RenderSystem.LAYER_PLAYER; layer <= RenderSystem.LAYER_ENEMIES; layer++) {
+                debugOverlay.text(" ").text(RenderSystem.LAYER_NAMES[layer])
+                        .text(renderer.isSoftware(layer) ? "=blit" : "=g2d");
+            }
+            if (renderer.parallel() != null) debugOverlay.text(" (parallel, ").number(renderer.parallel().threads()).text(" threads)");
+            debugOverlay.endLine();
+            debugOverlay.text("Entities: ").number(frame.enemyCount).text(" enemies, ")
+                    .number(frame.bulletCount).text(" bullets").endLine();
+            debugOverlay.text("Visible: ").number(renderer.visible()).text(" of ").number(frame.entities)
+                    .text(", awake enemies ").number(frame.awakeEnemies).endLine();
+            debugOverlay.text("Draw queue: ").number(renderer.commands()).text(" commands, ")
+                    .number(renderer.batches()).text(" batches, sort ").fixed(renderer.sortNanos() / 1e3, 0).text(" us").endLine();
+            if (world.map != null) {
+                debugOverlay.text("Chunks: ").number(chunksDrawn).text(" drawn, ").number(tiles.cachedChunks())
+                        .text(" cached, ").number(frame.awakeChunks).text(" awake of ")
+                        .number(world.map.chunksX() * world.map.chunksY()).endLine();
+            }
+            debugOverlay.text("Shots ").number(frame.shots).text(", kills ").number(frame.kills)
+                    .text(" (").fixed(frame.accuracy() * 100, 0).text("%), hits taken ").number(frame.hitsTaken).endLine();
+            if (SoundManager.mixer != null) {
+                debugOverlay.text("Audio: ").number(SoundManager.mixer.activeVoices()).text(" voices, ")
+                        .number(SoundManager.mixer.stolen()).text(" stolen, ")
+                        .number(SoundManager.mixer.dropped()).text(" dropped").endLine();
+            }
+            debugOverlay.text("Sprites: ").number(SpriteManager.totalBytes() >> 10).text(" KB (cap ")
+                    .number(SpriteManager.cacheCap >> 10).text(" KB), ").number(SpriteManager.evictions()).text(" levels evicted")
+                    .text(renderer.isTextured() ? ", textured" : "").endLine();
+            if (steadyState.isReported()) {
+                debugOverlay.text("Steady state after ").fixed(steadyState.timeToSteadyMillis(), 0)
+                        .text(" ms (frame ").fixed(steadyState.steadyFrameMillis(), 2).text(" ms)").endLine();
             }
         }
 
-        repaint();
-    }
+        if (paintEvent != null) paintEvent.end();
+        if (paintEvent != null && paintEvent.shouldCommit()) {
+            paintEvent.tick = frame.tick;
+            paintEvent.visible = renderer.visible();
+            paintEvent.chunks = chunksDrawn;
+            paintEvent.commands = renderer.commands();
+            paintEvent.batches = renderer.batches();
+            paintEvent.renderScale = scale;
+            paintEvent.software = software;
+            paintEvent.bufferBytes = 4L * w * h;
+            paintEvent.commit();
+        }
 
-    private void spawnEnemyAtEdge() {
-        // choose random edge: 0=top,1=right,2=bottom,3=left
-        int edge = (int) (Math.random() * 4);
-        int ex = 0, ey = 0;
-        switch (edge) {
-            case 0: // top
-                ex = (int) (Math.random() * (WIDTH - 40));
-                ey = -40;
-                break;
-            case 1: // right
-                ex = WIDTH;
-                ey = (int) (Math.random() * (HEIGHT - 40));
-                break;
-            case 2: // bottom
-                ex = (int) (Math.random() * (WIDTH - 40));
-                ey = HEIGHT;
-                break;
-            case 3: // left
-                ex = -40;
-                ey = (int) (Math.random() * (HEIGHT - 40));
-                break;
-        }
-        enemies.add(new Enemy(ex, ey));
+        // only frames of a running game count; the sim has its own thread, so the
+        // render budget is the paint alone
+        // (a stress test keeps full quality, so machines are compared at the same settings)
+        if (!frame.gameOver && stress == null) {
+            quality.recordFrame(now - start);
+            if (steadyState.record(frame.tickNanos + (now - start), now)) {
+                System.out.println(steadyState.summary() + "; " + WarmUp.summary());
+            }
+        }
     }
 
-    @Override
-    public void paintComponent(Graphics g) {
-        super.paintComponent(g);
+    // Largest WIDTH:HEIGHT rectangle that fits the panel, centered
+    private void updateViewport() {
+        double s = Math.min(getWidth() / (double) WIDTH, getHeight() / (double) HEIGHT);
+        if (s <= 0) s = 1;
+        viewW = (int) Math.round(WIDTH * s);
+        viewH = (int) Math.round(HEIGHT * s);
+        viewX = (getWidth() - viewW) / 2;
+        viewY = (getHeight() - viewH) / 2;
+    }
 
-        // Draw background
-        if (SpriteManager.bgSprite != null) {
-            g.drawImage(SpriteManager.bgSprite, 0, 0, WIDTH, HEIGHT, null);
-        } else {
-            g.setColor(Color.BLACK);
-            g.fillRect(0, 0, WIDTH, HEIGHT);
-        }
+    private int toLogicalX(int panelX) {
+        return (int) ((panelX - viewX) * (double) WIDTH / viewW);
+    }
 
-        // draw player
-        player.draw(g);
+    private int toLogicalY(int panelY) {
+        return (int) ((panelY - viewY) * (double) HEIGHT / viewH);
+    }
 
-        // draw bullets
-        for (Bullet b : bullets) b.draw(g);
+    // Logical HUD position -> device pixels inside the view
+    private int px(int logical) {
+        return (int) Math.round(logical * hudScale);
+    }
 
-        // draw enemies
-        for (Enemy en : enemies) {
-            en.draw(g, player); // pass player so they rotate toward player
-        }
+    private void drawHud(Graphics g) {
+        int effects = quality.effectDetail();
+        frame.damageNumbers.draw(g, camera.x, camera.y,
+                effects == 2 ? DamageNumbers.CAPACITY : effects == 1 ? DamageNumbers.REDUCED : 0, hudScale);
 
         // HUD
-        g.setColor(Color.WHITE);
-        g.setFont(new Font("Arial", Font.BOLD, 20));
-        g.drawString("Score: " + score, 10, 20);
+        int x = hudFont.drawString(g, "Score: ", px(10), px(20));
+        hudFont.drawInt(g, frame.score, x, px(20));
 
         // Health bar
-        int barWidth = 150, barHeight = 20;
-        int xPos = WIDTH - barWidth - 20, yPos = 20;
+        int barWidth = px(150), barHeight = px(20);
+        int xPos = px(WIDTH - 150 - 20), yPos = px(20);
         g.setColor(Color.GRAY);
         g.fillRect(xPos, yPos, barWidth, barHeight);
         g.setColor(Color.RED);
-        int healthWidth = (int)((player.health / (double)player.maxHealth) * barWidth);
+        int healthWidth = (int)((frame.health / (double)frame.maxHealth) * barWidth);
         g.fillRect(xPos, yPos, healthWidth, barHeight);
         g.setColor(Color.WHITE);
         g.drawRect(xPos, yPos, barWidth, barHeight);
 
-        if (gameOver) {
-            g.setColor(Color.RED);
-            g.setFont(new Font("Arial", Font.BOLD, 50));
-            g.drawString("GAME OVER", WIDTH / 2 - 150, HEIGHT / 2);
-            g.setFont(new Font("Arial", Font.PLAIN, 20));
-            g.drawString("Press ENTER to restart", WIDTH / 2 - 110, HEIGHT / 2 + 40);
+        if (frame.gameOver && stress != null) {
+            titleFont.drawString(g, "STRESS TEST DONE", px(WIDTH / 2 - 230), px(HEIGHT / 2));
+            if (stressSummary != null) promptFont.drawString(g, stressSummary, px(WIDTH / 2 - 200), px(HEIGHT / 2 + 40));
+            promptFont.drawString(g, "Results in " + StressTest.RESULTS + ". ENTER to rerun, ESC for menu",
+                    px(WIDTH / 2 - 280), px(HEIGHT / 2 + 70));
+        } else if (frame.gameOver) {
+            titleFont.drawString(g, "GAME OVER", px(WIDTH / 2 - 150), px(HEIGHT / 2));
+            promptFont.drawString(g, "Press ENTER to restart", px(WIDTH / 2 - 110), px(HEIGHT / 2 + 40));
+        }
+    }
+
+    private void drawWorld(Graphics2D g) {
+        quality.applyHints(g);
+
+        // Draw background: map tiles under the camera, else the backdrop image
+        int detail = quality.backgroundDetail();
+        chunksDrawn = 0;
+        if (world.map != null && detail > 0) {
+            g.translate(-camera.x, -camera.y);
+            chunksDrawn = tiles.draw(g, world.map, camera, getGraphicsConfiguration());
+            g.translate(camera.x, camera.y);
+        } else if (SpriteManager.background != null && detail > 0) {
+            // mip level for the buffer's size; reduced detail drops one more level
+            MipChain bg = SpriteManager.background;
+            double s = g.getTransform().getScaleX();
+            g.drawImage(bg.level(bg.levelFor(WIDTH * s, HEIGHT * s, detail == 1 ? 1 : 0)), 0, 0, WIDTH, HEIGHT, null);
+        } else {
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
         }
+
+        g.translate(-camera.x, -camera.y);
+        renderer.draw(g, frame, camera.x, camera.y, camera.width, camera.height);
+        g.translate(camera.x, camera.y);
     }
 
     // key listener methods (movement + restart)
     @Override
     public void keyPressed(KeyEvent e) {
-        player.keyPressed(e);
+        setKey(e.getKeyCode(), true, LatencyHistogram.eventNanos(e));
         // restart on Enter
-        if (gameOver && e.getKeyCode() == KeyEvent.VK_ENTER) {
+        if (frame != null && frame.gameOver && e.getKeyCode() == KeyEvent.VK_ENTER && stress != null) {
+            mainFrame.beginTransition("stress test rerun");
+            stopGame();
             startGame();
+            return;
+        }
+        if (frame != null && frame.gameOver && e.getKeyCode() == KeyEvent.VK_ENTER) {
+            mainFrame.beginTransition("restart");
+            sim.restart(System.nanoTime());
+            steadyState.start(System.nanoTime());
+        }
+        // toggle autoplay bot (for soak tests with a visible window)
+        if (e.getKeyCode() == KeyEvent.VK_F2) {
+            sim.setAutoplay(!sim.isAutoplay());
+        }
+        // fullscreen
+        if (e.getKeyCode() == KeyEvent.VK_F11) {
+            mainFrame.toggleFullscreen();
+        }
+        // toggle frame stats
+        if (e.getKeyCode() == KeyEvent.VK_F3) {
+            debugOverlay.toggle();
+        }
+        // F4: render unlocked (as fast as possible) or back at the target rate
+        if (e.getKeyCode() == KeyEvent.VK_F4) {
+            toggleUnlocked = true;
+        }
+        // F10: low-latency mode on/off; the histogram starts over for the new mode
+        if (e.getKeyCode() == KeyEvent.VK_F10) {
+            toggleLowLatency = true;
+            latency.reset();
+        }
+        // F5/F6/F7: player/bullet/enemy layer between Graphics2D and the software blitter
+        if (e.getKeyCode() >= KeyEvent.VK_F5 && e.getKeyCode() <= KeyEvent.VK_F7) {
+            renderer.toggleSoftware(RenderSystem.LAYER_PLAYER + e.getKeyCode() - KeyEvent.VK_F5);
+        }
+        // F8: software layers rasterized across all cores (switches every layer to software)
+        if (e.getKeyCode() == KeyEvent.VK_F8) {
+            if (renderer.parallel() == null) {
+                if (parallelRaster == null) parallelRaster = new ParallelRasterizer(Runtime.getRuntime().availableProcessors());
+                renderer.setParallel(parallelRaster);
+                for (int layer = RenderSystem.LAYER_PLAYER; layer <= RenderSystem.LAYER_ENEMIES; layer++) {
+                    renderer.setSoftware(layer, true);
+                }
+            } else {
+                renderer.setParallel(null);
+            }
+        }
+        // F9: Graphics2D layers draw the ship/bullet images (from their mip chains) instead of shapes
+        if (e.getKeyCode() == KeyEvent.VK_F9) {
+            renderer.setTextured(!renderer.isTextured());
         }
         // return to menu on ESC
         if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
-            stopGame();
-            mainFrame.showStartMenu();
+            mainFrame.showStartMenu(); // stops this game
         }
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        player.keyReleased(e);
+        setKey(e.getKeyCode(), false, LatencyHistogram.eventNanos(e));
     }
 
     @Override
     public void keyTyped(KeyEvent e) {}
-}
-
-/**
- * Player class
- */
-class Player {
-    double x, y;
-    int width = 40, height = 20;
-    double angle = 0;
-    int health = 100;
-    int maxHealth = 100;
-    boolean up, down, left, right;
-    double speed = 4.0;
 
-    public Player(double x, double y) {
-        this.x = x;
-        this.y = y;
-    }
-
-    public void update(int mouseX, int mouseY) {
-        // Update angle to face mouse
-        angle = Math.atan2(mouseY - (y + height/2.0), mouseX - (x + width/2.0));
-
-        // Movement
-        if (up) y -= speed;
-        if (down) y += speed;
-        if (left) x -= speed;
-        if (right) x += speed;
-
-        // Keep player on screen
-        x = Math.max(0, Math.min(GamePanel.WIDTH - width, x));
-        y = Math.max(0, Math.min(GamePanel.HEIGHT - height, y));
-    }
-
-    public void draw(Graphics g) {
-        Graphics2D g2d = (Graphics2D) g;
-        
-        // Save original transform
-        AffineTransform old = g2d.getTransform();
-        
-        // Rotate to face mouse
-        g2d.rotate(angle, x + width/2, y + height/2);
-        
-        // Draw player ship
-        g2d.setColor(Color.CYAN);
-        g2d.fillRect((int)x, (int)y, width, height);
-        
-        // Draw a triangle at the front for the ship's nose
-        int[] xPoints = {(int)x + width, (int)x + width + 15, (int)x + width};
-        int[] yPoints = {(int)y, (int)y + height/2, (int)y + height};
-        g2d.fillPolygon(xPoints, yPoints, 3);
-        
-        // Restore transform
-        g2d.setTransform(old);
-    }
-
-    public void keyPressed(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (key == KeyEvent.VK_W || key == KeyEvent.VK_UP) up = true;
-        if (key == KeyEvent.VK_S || key == KeyEvent.VK_DOWN) down = true;
-        if (key == KeyEvent.VK_A || key == KeyEvent.VK_LEFT) left = true;
-        if (key == KeyEvent.VK_D || key == KeyEvent.VK_RIGHT) right = true;
-    }
-
-    public void keyReleased(KeyEvent e) {
-        int key = e.getKeyCode();
-        if (key == KeyEvent.VK_W || key == KeyEvent.VK_UP) up = false;
-        if (key == KeyEvent.VK_S || key == KeyEvent.VK_DOWN) down = false;
-        if (key == KeyEvent.VK_A || key == KeyEvent.VK_LEFT) left = false;
-        if (key == KeyEvent.VK_D || key == KeyEvent.VK_RIGHT) right = false;
-    }
-
-    public void takeDamage(int damage) {
-        health -= damage;
-        if (health < 0) health = 0;
-    }
-}
-
-/**
- * Bullet class
- */
-class Bullet {
-    double x, y;
-    double dx, dy;
-    int size = 4;
-    double speed = 10.0;
-
-    public Bullet(double x, double y, double angle) {
-        this.x = x;
-        this.y = y;
-        this.dx = Math.cos(angle) * speed;
-        this.dy = Math.sin(angle) * speed;
-    }
-
-    public void update() {
-        x += dx;
-        y += dy;
-    }
-
-    public boolean isOffScreen(int width, int height) {
-        return x < 0 || x > width || y < 0 || y > height;
-    }
-
-    public void draw(Graphics g) {
-        g.setColor(Color.YELLOW);
-        g.fillOval((int)x, (int)y, size, size);
-    }
-}
-
-/**
- * Enemy class
- */
-class Enemy {
-    double x, y;
-    int width = 30, height = 30;
-    double speed = 2.0;
-
-    public Enemy(double x, double y) {
-        this.x = x;
-        this.y = y;
-    }
-
-    public void chase(double targetX, double targetY) {
-        double dx = targetX - (x + width/2);
-        double dy = targetY - (y + height/2);
-        double dist = Math.sqrt(dx*dx + dy*dy);
-        
-        if (dist > 0) {
-            x += (dx / dist) * speed;
-            y += (dy / dist) * speed;
-        }
-    }
-
-    public void draw(Graphics g, Player player) {
-        // Calculate angle to face player
-        double angle = Math.atan2(
-            (player.y + player.height/2) - (y + height/2),
-            (player.x + player.width/2) - (x + width/2)
-        );
-        
-        Graphics2D g2d = (Graphics2D) g;
-        AffineTransform old = g2d.getTransform();
-        
-        // Rotate to face player
-        g2d.rotate(angle, x + width/2, y + height/2);
-        
-        // Draw enemy
-        g2d.setColor(Color.RED);
-        g2d.fillRect((int)x, (int)y, width, height);
-        
-        // Draw a triangle at the front
-        int[] xPoints = {(int)x + width, (int)x + width + 10, (int)x + width};
-        int[] yPoints = {(int)y, (int)y + height/2, (int)y + height};
-        g2d.fillPolygon(xPoints, yPoints, 3);
-        
-        g2d.setTransform(old);
+    private void setKey(int key, boolean down, long eventNanos) {
+        if (key == KeyEvent.VK_W || key == KeyEvent.VK_UP) sim.setKey(SimulationLoop.KEY_UP, down, eventNanos);
+        if (key == KeyEvent.VK_S || key == KeyEvent.VK_DOWN) sim.setKey(SimulationLoop.KEY_DOWN, down, eventNanos);
+        if (key == KeyEvent.VK_A || key == KeyEvent.VK_LEFT) sim.setKey(SimulationLoop.KEY_LEFT, down, eventNanos);
+        if (key == KeyEvent.VK_D || key == KeyEvent.VK_RIGHT) sim.setKey(SimulationLoop.KEY_RIGHT, down, eventNanos);
     }
 }
 
 /**
  * Sprite manager with background loading.
+ *
+ * Every image is also kept as a MipChain so draws can use the level that
+ * fits their on-screen size. Levels other than the full-size ones are a
+ * cache: past cacheCap bytes (--sprite-cache-mb) the least recently used
+ * are dropped, and rebuilt if a draw needs them again.
  */
 class SpriteManager {
     public static BufferedImage bgSprite;
+    public static MipChain background, player, enemy, bullet;
+
+    static long cacheCap = 32L << 20;
+    private static MipChain[] chains = new MipChain[0];
+    private static long evictions;
     
     public static void loadSprites() {
         try {
@@ -641,5 +922,83 @@ class SpriteManager {
             }
             g.dispose();
         }
+
+        background = new MipChain("bg", bgSprite);
+        player = loadChain("player.png");
+        enemy = loadChain("enemy.png");
+        bullet = loadChain("bullet.png");
+        MipChain[] all = {background, player, enemy, bullet};
+        int n = 0;
+        for (MipChain c : all) if (c != null) all[n++] = c;
+        chains = Arrays.copyOf(all, n);
+        MipChain.onRebuild(SpriteManager::trim);
+        trim();
+        System.out.print(memoryReport());
+    }
+
+    private static MipChain loadChain(String file) {
+        try {
+            BufferedImage img = ImageIO.read(new File(file));
+            if (img != null) return new MipChain(file, img);
+            System.err.println("Could not decode '" + file + "', drawing shapes instead.");
+        } catch (IOException e) {
+            System.err.println("Could not load '" + file + "', drawing shapes instead.");
+        }
+        return null;
+    }
+
+    // Drop least recently used levels (never level 0, never one used this frame) until under the cap
+    static void trim() {
+        while (totalBytes() > cacheCap) {
+            MipChain victim = null;
+            int victimLevel = -1;
+            for (MipChain c : chains) {
+                for (int i = 1; i < c.levelCount(); i++) {
+                    if (!c.isResident(i) || c.lastUsed(i) == MipChain.clock()) continue;
+                    if (victim == null || c.lastUsed(i) < victim.lastUsed(victimLevel)) {
+                        victim = c;
+                        victimLevel = i;
+                    }
+                }
+            }
+            if (victim == null) return; // everything left is full size or in use
+            victim.evict(victimLevel);
+            evictions++;
+        }
+    }
+
+    public static long totalBytes() {
+        long sum = 0;
+        for (MipChain c : chains) sum += c.bytes();
+        return sum;
+    }
+
+    public static int residentLevels() {
+        int n = 0;
+        for (MipChain c : chains) n += c.residentLevels();
+        return n;
+    }
+
+    public static int acceleratedLevels(GraphicsConfiguration gc) {
+        int n = 0;
+        for (MipChain c : chains) n += c.acceleratedLevels(gc);
+        return n;
+    }
+
+    public static long evictions() {
+        return evictions;
+    }
+
+    public static String memoryReport() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Sprites: %d KB resident (cap %d KB), %d levels evicted so far%n",
+                totalBytes() >> 10, cacheCap >> 10, evictions));
+        for (MipChain c : chains) {
+            int resident = 0;
+            for (int i = 0; i < c.levelCount(); i++) if (c.isResident(i)) resident++;
+            sb.append(String.format("  %-10s %4dx%-4d %2d/%2d levels %6d KB%n", c.name,
+                    c.width(0), c.height(0), resident, c.levelCount(), c.bytes() >> 10));
+        }
+        return sb.toString();
     }
 } 
\ No newline at end of file
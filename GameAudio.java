@@ -0,0 +1,22 @@
+/**
+ * Event bus subscriber that turns gameplay events into sound effects,
+ * panned by where they happened relative to the player.
+ */
+public class GameAudio implements EventBus.Handler {
+    private final GameWorld world;
+
+    public GameAudio(GameWorld world) {
+        this.world = world;
+    }
+
+    @Override
+    public void onEvent(int type, int entity, int value, double x, double y, boolean endOfBatch) {
+        double pan = (x - world.playerCenterX()) / (GameWorld.WIDTH / 2.0);
+        switch (type) {
+            case EventBus.BULLET_FIRED: SoundManager.play(SoundManager.SHOT, 1, 0.5, pan); break;
+            case EventBus.ENEMY_KILLED: SoundManager.play(SoundManager.EXPLOSION, 2, 0.8, pan); break;
+            case EventBus.PLAYER_HIT:   SoundManager.play(SoundManager.HIT, 3, 1.0, pan); break;
+            case EventBus.GAME_OVER:    SoundManager.play(SoundManager.GAME_OVER, 4, 1.0, 0); break;
+        }
+    }
+}
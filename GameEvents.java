@@ -0,0 +1,89 @@
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder events for the game loop, so a .jfr file from a player
+ * shows ticks, collision passes, spawns and paints on the same timeline as
+ * GC, JIT and safepoint events. They cost nothing unless a recording has
+ * them enabled (see GameRecording and spacesurvivor.jfc).
+ *
+ * The escape analysis doesn't reliably remove an event object that is never
+ * committed, and the sim is meant not to allocate per tick, so hot paths
+ * check the type (TICK.isEnabled()) before creating an event at all.
+ */
+public final class GameEvents {
+    private GameEvents() {}
+
+    static final EventType TICK = EventType.getEventType(Tick.class);
+    static final EventType COLLISION = EventType.getEventType(Collision.class);
+    static final EventType SPAWN = EventType.getEventType(Spawn.class);
+    static final EventType PAINT = EventType.getEventType(Paint.class);
+
+    @Name("spacesurvivor.Tick")
+    @Label("Tick")
+    @Category({"Space Survivor", "Simulation"})
+    @Description("One simulation tick with entity counts and how long each system took")
+    @StackTrace(false)
+    public static class Tick extends Event {
+        @Label("Tick") public long tick;
+        @Label("Enemies") public int enemies;
+        @Label("Awake Enemies") public int awakeEnemies;
+        @Label("Bullets") public int bullets;
+        @Label("Player Control") @Timespan public long playerControl;
+        @Label("Movement") @Timespan public long movement;
+        @Label("Bounds") @Timespan public long bounds;
+        @Label("Spawn") @Timespan public long spawn;
+        @Label("Chase") @Timespan public long chase;
+        @Label("Collision") @Timespan public long collision;
+        @Label("Damage") @Timespan public long damage;
+    }
+
+    @Name("spacesurvivor.Collision")
+    @Label("Collision Pass")
+    @Category({"Space Survivor", "Simulation"})
+    @Description("Bullet vs enemy pass: pairs looked at, how many reached each phase, and kills")
+    @StackTrace(false)
+    public static class Collision extends Event {
+        @Label("Enemies") public int enemies;
+        @Label("Bullets") public int bullets;
+        @Label("Pairs") public long pairs;
+        @Label("Candidates") @Description("Pairs close enough for the mask test") public long candidates;
+        @Label("Kills") public int kills;
+        @Label("Pixel Masks") public boolean pixel;
+    }
+
+    @Name("spacesurvivor.Spawn")
+    @Label("Spawn")
+    @Category({"Space Survivor", "Simulation"})
+    @Description("An enemy entering from a screen edge")
+    @StackTrace(false)
+    public static class Spawn extends Event {
+        @Label("Edge") @Description("0 top, 1 right, 2 bottom, 3 left") public int edge;
+        @Label("X") public double x;
+        @Label("Y") public double y;
+        @Label("Enemies") @Description("Enemies alive after the spawn") public int enemies;
+    }
+
+    @Name("spacesurvivor.Paint")
+    @Label("Paint")
+    @Category({"Space Survivor", "Rendering"})
+    @Description("One GamePanel.paintComponent call")
+    @StackTrace(false)
+    public static class Paint extends Event {
+        @Label("Snapshot Tick") public long tick;
+        @Label("Visible Entities") public int visible;
+        @Label("Chunks Drawn") public int chunks;
+        @Label("Draw Commands") public int commands;
+        @Label("Draw Batches") public int batches;
+        @Label("Render Scale") public double renderScale;
+        @Label("Software Layers") public boolean software;
+        @Label("World Buffer") @DataAmount public long bufferBytes;
+    }
+}
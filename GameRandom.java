@@ -0,0 +1,38 @@
+/**
+ * Seeded SplitMix64 generator, one per GameWorld.
+ * Math.random() shares a single generator across every thread, which both
+ * serializes parallel simulations and makes runs impossible to repeat.
+ */
+public class GameRandom {
+    private long state;
+
+    public GameRandom(long seed) {
+        state = seed;
+    }
+
+    public void setSeed(long seed) {
+        state = seed;
+    }
+
+    // Whole generator state: setSeed(state()) later replays the same numbers
+    public long state() {
+        return state;
+    }
+
+    public long nextLong() {
+        long z = (state += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // uniform in [0, 1)
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    // uniform in [0, bound)
+    public int nextInt(int bound) {
+        return (int) ((nextLong() >>> 33) * bound >>> 31);
+    }
+}
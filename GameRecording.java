@@ -0,0 +1,39 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * Starts a Flight Recorder recording from inside the game (java Game
+ * --record game.jfr), so players don't need to know the JVM flags.
+ *
+ * The settings are the JDK's "default" profile with spacesurvivor.jfc laid
+ * over it: that file only lists what it changes (the GameEvents types, and
+ * lower thresholds for GC, safepoint and JIT pauses). The file is written
+ * when the JVM exits.
+ */
+public class GameRecording {
+    public static final String PROFILE = "spacesurvivor.jfc";
+
+    // Returns null, after saying why, if the recording couldn't be started
+    public static Recording start(Path profile, Path destination) {
+        try {
+            Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+            settings.putAll(Configuration.create(profile).getSettings());
+            Recording recording = new Recording(settings);
+            recording.setName("Space Survivor");
+            recording.setToDisk(true);
+            recording.setDestination(destination);
+            recording.setDumpOnExit(true);
+            recording.start();
+            System.out.println("Recording to " + destination.toAbsolutePath() + " (written on exit)");
+            return recording;
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Could not start a flight recording, continuing without: " + e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+/**
+ * Event bus subscriber that tallies a game: shots, kills, hits taken.
+ */
+public class GameStats implements EventBus.Handler {
+    int shots, kills, hitsTaken, spawned;
+
+    @Override
+    public void onEvent(int type, int entity, int value, double x, double y, boolean endOfBatch) {
+        switch (type) {
+            case EventBus.BULLET_FIRED:  shots++; break;
+            case EventBus.ENEMY_KILLED:  kills++; break;
+            case EventBus.PLAYER_HIT:    hitsTaken++; break;
+            case EventBus.ENEMY_SPAWNED: spawned++; break;
+        }
+    }
+
+    public void reset() {
+        shots = kills = hitsTaken = spawned = 0;
+    }
+
+    // fraction of shots that killed something
+    public double accuracy() {
+        return shots == 0 ? 0 : kills / (double) shots;
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * The simulation side of a game: entities live in an Ecs and a fixed list of
+ * systems runs over them once per tick. No Swing in here, so it runs the
+ * same inside GamePanel and headless (see BatchSimulation).
+ *
+ * Without a map the arena is one WIDTH x HEIGHT screen. With a TileMap the
+ * arena is the whole map, enemies spawn around the player's screen, and
+ * only the map chunks near the player are simulated.
+ */
+public class GameWorld {
+    public static final int WIDTH = 800;  // the single-screen arena, and the logical view size
+    public static final int HEIGHT = 600;
+
+    // entity templates
+    static final int PLAYER_MASK = Components.PLAYER | Components.POSITION | Components.SIZE
+            | Components.ROTATION | Components.HEALTH;
+    static final int ENEMY_MASK = Components.ENEMY | Components.POSITION | Components.SIZE | Components.CHASE
+            | Components.VELOCITY; // velocity is only non-zero while flocking
+    static final int BULLET_MASK = Components.BULLET | Components.POSITION | Components.SIZE | Components.VELOCITY;
+
+    static final int PLAYER_WIDTH = 40, PLAYER_HEIGHT = 20;
+    static final double PLAYER_SPEED = 4.0;
+    static final int PLAYER_MAX_HEALTH = 100;
+    static final int ENEMY_SIZE = 30;
+    static final int BULLET_SIZE = 4;
+    static final double BULLET_SPEED = 10.0;
+    static final double FAR = 1e18; // awake bounds when there is no map: everything is awake
+
+    // balancing knobs (defaults match the hand-tuned values)
+    double spawnChance = 0.02;
+    double enemySpeed = 2.0;
+    int contactDamage = 20;
+    int killScore = 10;
+    boolean pixelCollision = true; // false: the old unrotated bounding boxes
+    boolean flocking = true;       // false: every chaser heads straight for the player
+    boolean fixedPoint = false;    // 16.16 positions and table trig, identical on every JVM (see Fixed;
+                                   // flocking steers with IEEE Math.sqrt, the straight chase with Fixed)
+    boolean endless = false;       // nothing ends the game (the stress test)
+
+    // playfield size in pixels; the map's size once one is set
+    int arenaWidth = WIDTH, arenaHeight = HEIGHT;
+    TileMap map;
+
+    final Ecs ecs = new Ecs();
+    final Query enemies = ecs.query(Components.ENEMY | Components.POSITION | Components.SIZE);
+    final Query bullets = ecs.query(Components.BULLET | Components.POSITION | Components.SIZE);
+    int player;                          // entity handle
+    InputFrame input = new InputFrame(); // held keys and aim for the current tick
+    final EventBus events = new EventBus(4096);
+
+    int score = 0;
+    boolean gameOver = false;
+    long ticks = 0;
+    int awakeEnemies = 0; // enemies simulated last tick (the rest are asleep)
+
+    GameRandom random;
+
+    final PlayerControlSystem playerControl = new PlayerControlSystem(ecs);
+    final MovementSystem movement = new MovementSystem(ecs);
+    final BoundsSystem bounds = new BoundsSystem(ecs);
+    final ChaseSystem chase = new ChaseSystem(ecs);
+    final FlockingSystem flock = new FlockingSystem(ecs);
+    final CollisionSystem collision = new CollisionSystem();
+    final DamageSystem damage = new DamageSystem();
+
+    public GameWorld(long seed) {
+        random = new GameRandom(seed);
+        spawnPlayer();
+    }
+
+    // Play on a map instead of the single-screen arena (takes effect from the next reset)
+    public void setMap(TileMap map) {
+        this.map = map;
+        arenaWidth = map == null ? WIDTH : map.pixelWidth();
+        arenaHeight = map == null ? HEIGHT : map.pixelHeight();
+    }
+
+    public void reset(long seed) {
+        random.setSeed(seed);
+        ecs.clear();
+        score = 0;
+        gameOver = false;
+        ticks = 0;
+        awakeEnemies = 0;
+        spawnPlayer();
+    }
+
+    private void spawnPlayer() {
+        player = ecs.create(PLAYER_MASK);
+        Chunk c = ecs.chunk(player);
+        int r = ecs.row(player);
+        c.x[r] = arenaWidth / 2.0;
+        c.y[r] = arenaHeight / 2.0;
+        c.w[r] = PLAYER_WIDTH;
+        c.h[r] = PLAYER_HEIGHT;
+        c.health[r] = PLAYER_MAX_HEALTH;
+        c.maxHealth[r] = PLAYER_MAX_HEALTH;
+    }
+
+    public int spawnEnemy(double x, double y) {
+        int e = ecs.create(ENEMY_MASK);
+        Chunk c = ecs.chunk(e);
+        int r = ecs.row(e);
+        c.x[r] = fixedPoint ? Fixed.quantize(x) : x;
+        c.y[r] = fixedPoint ? Fixed.quantize(y) : y;
+        c.w[r] = ENEMY_SIZE;
+        c.h[r] = ENEMY_SIZE;
+        c.speed[r] = enemySpeed;
+        events.publish(EventBus.ENEMY_SPAWNED, e, 0, x, y);
+        return e;
+    }
+
+    public int spawnBullet(double x, double y, double angle) {
+        int b = ecs.create(BULLET_MASK);
+        Chunk c = ecs.chunk(b);
+        int r = ecs.row(b);
+        c.w[r] = BULLET_SIZE;
+        c.h[r] = BULLET_SIZE;
+        if (fixedPoint) {
+            int a = Fixed.fromRadians(angle), speed = Fixed.toFixed(BULLET_SPEED);
+            c.x[r] = Fixed.quantize(x);
+            c.y[r] = Fixed.quantize(y);
+            c.vx[r] = Fixed.toDouble(Fixed.mul(Fixed.cos(a), speed));
+            c.vy[r] = Fixed.toDouble(Fixed.mul(Fixed.sin(a), speed));
+        } else {
+            c.x[r] = x;
+            c.y[r] = y;
+            c.vx[r] = Math.cos(angle) * BULLET_SPEED;
+            c.vy[r] = Math.sin(angle) * BULLET_SPEED;
+        }
+        return b;
+    }
+
+    // Shoot from the ship's nose toward (targetX, targetY)
+    public void fire(double targetX, double targetY) {
+        Chunk c = ecs.chunk(player);
+        int r = ecs.row(player);
+        double cx = c.x[r] + c.w[r] / 2, cy = c.y[r] + c.h[r] / 2;
+
+        // offset from center toward front of ship
+        double bulletX, bulletY, angle;
+        if (fixedPoint) {
+            int facing = Fixed.fromRadians(c.angle[r]);
+            bulletX = cx + Fixed.toDouble(Fixed.cos(facing) * (c.w[r] / 2));
+            bulletY = cy + Fixed.toDouble(Fixed.sin(facing) * (c.h[r] / 2));
+            angle = Fixed.toRadians(Fixed.atan2(Fixed.toFixed(targetY - (c.y[r] + c.h[r] / 2.0)),
+                    Fixed.toFixed(targetX - (c.x[r] + c.w[r] / 2.0))));
+        } else {
+            bulletX = cx + Math.cos(c.angle[r]) * c.w[r] / 2;
+            bulletY = cy + Math.sin(c.angle[r]) * c.h[r] / 2;
+            angle = Math.atan2(targetY - (c.y[r] + c.h[r] / 2.0), targetX - (c.x[r] + c.w[r] / 2.0));
+        }
+
+        int b = spawnBullet(bulletX - 2, bulletY - 2, angle); // -2 centers bullet
+        events.publish(EventBus.BULLET_FIRED, b, 0, bulletX, bulletY);
+    }
+
+    // Apply one frame of input the way a human's events would land: the click
+    // fires between ticks, then the tick runs with the held keys and mouse position
+    public void step(InputFrame frame) {
+        if (gameOver) return;
+        input = frame;
+        if (frame.fire) fire(frame.fireX, frame.fireY);
+        tick();
+        events.dispatch(); // same-thread subscribers see this tick's events in one batch
+    }
+
+    private void tick() {
+        ticks++;
+        // per-system times only while a recording wants them
+        GameEvents.Tick event = GameEvents.TICK.isEnabled() ? new GameEvents.Tick() : null;
+        boolean timed = event != null;
+        if (timed) event.begin();
+        long t = timed ? System.nanoTime() : 0, now;
+
+        // only chunks near the player are simulated; bullets leaving them are dropped
+        double minX = -FAR, minY = -FAR, maxX = FAR, maxY = FAR;
+        if (map != null) {
+            map.wake(playerCenterX(), playerCenterY());
+            minX = map.awakeMinX();
+            minY = map.awakeMinY();
+            maxX = map.awakeMaxX();
+            maxY = map.awakeMaxY();
+        }
+
+        playerControl.run(input, arenaWidth, arenaHeight, fixedPoint);
+        if (timed) { now = System.nanoTime(); event.playerControl = now - t; t = now; }
+        movement.run();
+        if (timed) { now = System.nanoTime(); event.movement = now - t; t = now; }
+        bounds.run(Math.max(0, minX), Math.max(0, minY), Math.min(arenaWidth, maxX), Math.min(arenaHeight, maxY));
+        if (timed) { now = System.nanoTime(); event.bounds = now - t; t = now; }
+
+        // spawn enemies randomly from any edge (low chance each frame)
+        if (random.nextDouble() < spawnChance) {
+            spawnEnemyAtEdge();
+        }
+        if (timed) { now = System.nanoTime(); event.spawn = now - t; t = now; }
+
+        // flocking steers through velocity, which movement applies next tick
+        flock.fixedPoint = fixedPoint;
+        awakeEnemies = flocking ? flock.run(playerCenterX(), playerCenterY(), minX, minY, maxX, maxY)
+                : fixedPoint ? chase.runFixed(playerCenterX(), playerCenterY(), minX, minY, maxX, maxY)
+                : chase.run(playerCenterX(), playerCenterY(), minX, minY, maxX, maxY);
+        if (timed) { now = System.nanoTime(); event.chase = now - t; t = now; }
+        collision.run(this);
+        if (timed) { now = System.nanoTime(); event.collision = now - t; t = now; }
+        damage.run(this);
+        if (timed) { event.damage = System.nanoTime() - t; }
+
+        if (timed) event.end();
+        if (timed && event.shouldCommit()) {
+            event.tick = ticks;
+            event.enemies = enemyCount();
+            event.awakeEnemies = awakeEnemies;
+            event.bullets = bulletCount();
+            event.commit();
+        }
+    }
+
+    private void spawnEnemyAtEdge() {
+        // edges of the screen around the player (the whole arena without a map)
+        int left = (int) Math.max(0, Math.min(arenaWidth - WIDTH, playerCenterX() - WIDTH / 2.0));
+        int top = (int) Math.max(0, Math.min(arenaHeight - HEIGHT, playerCenterY() - HEIGHT / 2.0));
+
+        // choose random edge: 0=top,1=right,2=bottom,3=left
+        int edge = random.nextInt(4);
+        int ex = 0, ey = 0;
+        switch (edge) {
+            case 0: // top
+                ex = random.nextInt(WIDTH - 40);
+                ey = -40;
+                break;
+            case 1: // right
+                ex = WIDTH;
+                ey = random.nextInt(HEIGHT - 40);
+                break;
+            case 2: // bottom
+                ex = random.nextInt(WIDTH - 40);
+                ey = HEIGHT;
+                break;
+            case 3: // left
+                ex = -40;
+                ey = random.nextInt(HEIGHT - 40);
+                break;
+        }
+        spawnEnemy(left + ex, top + ey);
+
+        if (GameEvents.SPAWN.isEnabled()) {
+            GameEvents.Spawn event = new GameEvents.Spawn();
+            event.edge = edge;
+            event.x = left + ex;
+            event.y = top + ey;
+            event.enemies = enemyCount();
+            event.commit();
+        }
+    }
+
+    public double playerCenterX() {
+        Chunk c = ecs.chunk(player);
+        int r = ecs.row(player);
+        return c.x[r] + c.w[r] / 2.0;
+    }
+
+    public double playerCenterY() {
+        Chunk c = ecs.chunk(player);
+        int r = ecs.row(player);
+        return c.y[r] + c.h[r] / 2.0;
+    }
+
+    public int playerHealth() {
+        return ecs.chunk(player).health[ecs.row(player)];
+    }
+
+    public int playerMaxHealth() {
+        return ecs.chunk(player).maxHealth[ecs.row(player)];
+    }
+
+    public int enemyCount() {
+        return enemies.size();
+    }
+
+    public int bulletCount() {
+        return bullets.size();
+    }
+}
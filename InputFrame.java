@@ -0,0 +1,29 @@
+/**
+ * One tick's worth of player input: movement keys, where the mouse points,
+ * and an optional click. GamePanel builds these from key/mouse events and
+ * bots fill them in directly, so both go through GameWorld.step the same way.
+ */
+public class InputFrame {
+    boolean up, down, left, right;
+    int aimX, aimY;
+    boolean fire;
+    int fireX, fireY;
+
+    public void clear() {
+        up = down = left = right = false;
+        fire = false;
+    }
+
+    public void set(InputFrame o) {
+        up = o.up; down = o.down; left = o.left; right = o.right;
+        aimX = o.aimX; aimY = o.aimY;
+        fire = o.fire; fireX = o.fireX; fireY = o.fireY;
+    }
+
+    // Would the world come out the same with either frame?
+    public boolean sameAs(InputFrame o) {
+        return up == o.up && down == o.down && left == o.left && right == o.right
+                && aimX == o.aimX && aimY == o.aimY
+                && fire == o.fire && (!fire || (fireX == o.fireX && fireY == o.fireY));
+    }
+}
@@ -0,0 +1,90 @@
+import java.awt.event.InputEvent;
+import java.util.Arrays;
+
+/**
+ * Input-to-photon latency: from when an input event happened to when the
+ * first frame showing its effect was flushed to the screen. Samples go
+ * into 1 ms bins (up to MAX_MILLIS, the rest into one overflow bin) for
+ * percentiles, and are reported over the coarser BUCKET_MILLIS buckets.
+ *
+ * Event times come from InputEvent.getWhen(), which is wall-clock
+ * milliseconds, so a sample also counts the time the event spent queued
+ * on its way to the EDT, give or take a millisecond.
+ */
+public class LatencyHistogram {
+    static final int MAX_MILLIS = 250;
+
+    // report bucket upper bounds, ms
+    static final int[] BUCKET_MILLIS = {8, 16, 25, 33, 50, 67, 100, Integer.MAX_VALUE};
+    static final String[] BUCKET_LABELS = {"<8ms", "<16ms", "<25ms", "<33ms", "<50ms", "<67ms", "<100ms", ">=100ms"};
+
+    private final long[] bins = new long[MAX_MILLIS + 1];
+    private long samples, sumNanos, maxNanos;
+
+    // The event's time on the System.nanoTime clock
+    public static long eventNanos(InputEvent e) {
+        long now = System.nanoTime();
+        long ageMillis = System.currentTimeMillis() - e.getWhen();
+        return ageMillis > 0 ? now - ageMillis * 1_000_000 : now;
+    }
+
+    public void record(long nanos) {
+        samples++;
+        sumNanos += nanos;
+        maxNanos = Math.max(maxNanos, nanos);
+        bins[(int) Math.min(MAX_MILLIS, nanos / 1_000_000)]++;
+    }
+
+    public void reset() {
+        Arrays.fill(bins, 0);
+        samples = sumNanos = maxNanos = 0;
+    }
+
+    public long samples() {
+        return samples;
+    }
+
+    public double meanMillis() {
+        return samples == 0 ? 0 : sumNanos / 1e6 / samples;
+    }
+
+    public double maxMillis() {
+        return maxNanos / 1e6;
+    }
+
+    // Upper edge of the 1 ms bin holding the p-th fraction of samples (MAX_MILLIS+ lands on MAX_MILLIS + 1)
+    public int percentileMillis(double p) {
+        long rank = (long) Math.ceil(p * samples), seen = 0;
+        for (int ms = 0; ms < bins.length; ms++) {
+            seen += bins[ms];
+            if (seen >= rank && seen > 0) return ms + 1;
+        }
+        return 0;
+    }
+
+    public int buckets() {
+        return BUCKET_MILLIS.length;
+    }
+
+    public long bucketCount(int bucket) {
+        int from = bucket == 0 ? 0 : BUCKET_MILLIS[bucket - 1];
+        int to = Math.min(bins.length, BUCKET_MILLIS[bucket]);
+        long n = 0;
+        for (int ms = from; ms < to; ms++) n += bins[ms];
+        return n;
+    }
+
+    public String report(String name) {
+        if (samples == 0) return name + " latency: no samples" + System.lineSeparator();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s latency: %d samples, mean %.1f ms, p50 %d ms, p95 %d ms, p99 %d ms, max %.1f ms%n",
+                name, samples, meanMillis(), percentileMillis(0.5), percentileMillis(0.95), percentileMillis(0.99), maxMillis()));
+        long max = 1;
+        for (int b = 0; b < buckets(); b++) max = Math.max(max, bucketCount(b));
+        for (int b = 0; b < buckets(); b++) {
+            long c = bucketCount(b);
+            sb.append(String.format("  %-7s %8d %s%n", BUCKET_LABELS[b], c, "#".repeat((int) (50 * c / max))));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,21 @@
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Writes a procedural map file for the game to load.
+ *
+ *   java MapGenerator [file] [widthTiles] [heightTiles] [seed]
+ */
+public class MapGenerator {
+    public static void main(String[] args) throws IOException {
+        String file = args.length > 0 ? args[0] : "world.map";
+        int width = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int height = args.length > 2 ? Integer.parseInt(args[2]) : 256;
+        long seed = args.length > 3 ? Long.parseLong(args[3]) : 1;
+
+        TileMap map = TileMap.generate(width, height, seed);
+        map.write(Paths.get(file));
+        System.out.printf("Wrote %s: %dx%d tiles (%dx%d px), %d chunks%n", file, width, height,
+                map.pixelWidth(), map.pixelHeight(), map.chunksX() * map.chunksY());
+    }
+}
@@ -0,0 +1,170 @@
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+/**
+ * An image and its successively halved copies, down to 1x1, so a draw at
+ * any on-screen size can start from a level at most twice as big instead of
+ * squeezing the full-size image down with one bilinear (or nearest) pass.
+ *
+ * Levels are premultiplied ARGB and each is a 2x2 box filter of the one
+ * above, built when the chain is made. Level 0 always stays; the others can
+ * be dropped (see SpriteManager's cache cap) and are rebuilt from the
+ * nearest level still held the next time a draw wants them. Each level
+ * remembers the frame (clock, advanced by nextFrame()) it was last drawn
+ * in, for the cache's least-recently-used choice.
+ *
+ * Pixels are read and written through the Raster, not the DataBuffer's
+ * array: taking the array would make Java2D give up on caching the level
+ * in video memory (an unmanaged image), and every draw would upload it.
+ */
+public class MipChain {
+    private static long clock = 1;
+    private static Runnable onRebuild; // the cache's trim, run after a level comes back
+
+    final String name;
+    private final BufferedImage[] levels;
+    private final long[] lastUsed;
+
+    public MipChain(String name, BufferedImage source) {
+        this.name = name;
+        int n = 1;
+        for (int w = source.getWidth(), h = source.getHeight(); w > 1 || h > 1; w = half(w), h = half(h)) n++;
+        levels = new BufferedImage[n];
+        lastUsed = new long[n];
+        levels[0] = premultiplied(source);
+        for (int i = 1; i < n; i++) levels[i] = downsample(levels[i - 1]);
+    }
+
+    // Once per paint
+    public static void nextFrame() {
+        clock++;
+    }
+
+    public static long clock() {
+        return clock;
+    }
+
+    // Called after a dropped level is rebuilt, so the owner can get back under its cap
+    public static void onRebuild(Runnable hook) {
+        onRebuild = hook;
+    }
+
+    public int levelCount() {
+        return levels.length;
+    }
+
+    // Smallest level still at least w x h on screen, so drawing it only ever shrinks by < 2x.
+    // 'bias' skips that many more levels (cheaper, blurrier).
+    public int levelFor(double w, double h, int bias) {
+        int i = 0;
+        while (i + 1 < levels.length && width(i + 1) >= w && height(i + 1) >= h) i++;
+        return Math.min(levels.length - 1, i + Math.max(0, bias));
+    }
+
+    public BufferedImage level(int i) {
+        lastUsed[i] = clock;
+        BufferedImage img = levels[i];
+        if (img == null) {
+            int from = i;
+            while (levels[from] == null) from--; // level 0 is never evicted
+            for (int l = from + 1; l <= i; l++) levels[l] = downsample(levels[l - 1]);
+            img = levels[i];
+            if (onRebuild != null) onRebuild.run(); // may evict the levels we just went through, not this one
+        }
+        return img;
+    }
+
+    // Size of a level whether or not it is currently held
+    public int width(int i) {
+        int w = levels[0].getWidth();
+        for (int l = 0; l < i; l++) w = half(w);
+        return w;
+    }
+
+    public int height(int i) {
+        int h = levels[0].getHeight();
+        for (int l = 0; l < i; l++) h = half(h);
+        return h;
+    }
+
+    public boolean isResident(int i) {
+        return levels[i] != null;
+    }
+
+    public long lastUsed(int i) {
+        return lastUsed[i];
+    }
+
+    // Resident levels Java2D currently holds an accelerated copy of
+    public int acceleratedLevels(GraphicsConfiguration gc) {
+        int n = 0;
+        for (BufferedImage img : levels) {
+            if (img != null && img.getCapabilities(gc).isAccelerated()) n++;
+        }
+        return n;
+    }
+
+    public int residentLevels() {
+        int n = 0;
+        for (BufferedImage img : levels) if (img != null) n++;
+        return n;
+    }
+
+    public void evict(int i) {
+        if (i > 0) levels[i] = null;
+    }
+
+    // Bytes held by resident levels
+    public long bytes() {
+        long sum = 0;
+        for (int i = 0; i < levels.length; i++) {
+            if (levels[i] != null) sum += 4L * levels[i].getWidth() * levels[i].getHeight();
+        }
+        return sum;
+    }
+
+    private static int half(int n) {
+        return Math.max(1, n / 2);
+    }
+
+    private static BufferedImage premultiplied(BufferedImage src) {
+        if (src.getType() == BufferedImage.TYPE_INT_ARGB_PRE) return src;
+        BufferedImage img = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = img.createGraphics();
+        g.drawImage(src, 0, 0, null);
+        g.dispose();
+        return img;
+    }
+
+    // 2x2 box filter; premultiplied, so transparent pixels don't darken the edges.
+    // An odd last row/column is folded into the one before it.
+    static BufferedImage downsample(BufferedImage src) {
+        int sw = src.getWidth(), sh = src.getHeight();
+        int dw = half(sw), dh = half(sh);
+        int[] s = (int[]) src.getRaster().getDataElements(0, 0, sw, sh, null); // a copy; src stays managed
+        BufferedImage dst = new BufferedImage(dw, dh, BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] d = new int[dw * dh];
+        for (int y = 0; y < dh; y++) {
+            int y0 = Math.min(2 * y, sh - 1), y1 = y == dh - 1 ? sh - 1 : Math.min(2 * y + 1, sh - 1);
+            for (int x = 0; x < dw; x++) {
+                int x0 = Math.min(2 * x, sw - 1), x1 = x == dw - 1 ? sw - 1 : Math.min(2 * x + 1, sw - 1);
+                int a = 0, r = 0, g = 0, b = 0, n = 0;
+                for (int yy = y0; yy <= y1; yy++) {
+                    for (int xx = x0; xx <= x1; xx++) {
+                        int p = s[yy * sw + xx];
+                        a += p >>> 24;
+                        r += (p >> 16) & 0xFF;
+                        g += (p >> 8) & 0xFF;
+                        b += p & 0xFF;
+                        n++;
+                    }
+                }
+                int h = n / 2; // round to nearest
+                d[y * dw + x] = (a + h) / n << 24 | (r + h) / n << 16 | (g + h) / n << 8 | (b + h) / n;
+            }
+        }
+        dst.getRaster().setDataElements(0, 0, dw, dh, d);
+        return dst;
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Integrates velocity into position for everything that has both.
+ */
+public class MovementSystem {
+    private final Query q;
+
+    public MovementSystem(Ecs ecs) {
+        q = ecs.query(Components.POSITION | Components.VELOCITY);
+    }
+
+    public void run() {
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y, vx = ch.vx, vy = ch.vy;
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    x[i] += vx[i];
+                    y[i] += vy[i];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/**
+ * Autoplay bot for load generation: aims at the closest enemy, shoots on a
+ * fixed cadence and steers away from anything inside its danger radius,
+ * circling around the threat rather than backing into a wall.
+ * One pass over the enemy list per tick, no allocation.
+ */
+public class NearestThreatBot implements BotController {
+    int fireEvery;           // ticks between shots
+    double dangerRadius = 160;
+    double wallMargin = 60;
+
+    private int cooldown = 0;
+
+    public NearestThreatBot(int fireEvery) {
+        this.fireEvery = Math.max(1, fireEvery);
+    }
+
+    @Override
+    public void control(GameWorld world, InputFrame input) {
+        double px = world.playerCenterX(), py = world.playerCenterY();
+
+        // nearest target plus a repulsion vector from everything that's close
+        double best = Double.MAX_VALUE, tx = 0, ty = 0;
+        double pushX = 0, pushY = 0;
+        double danger2 = dangerRadius * dangerRadius;
+        Query enemies = world.enemies;
+        for (int a = 0; a < enemies.count; a++) {
+            Archetype arch = enemies.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk e = arch.chunks[c];
+                for (int i = 0; i < e.count; i++) {
+                    double dx = e.x[i] + e.w[i] / 2.0 - px, dy = e.y[i] + e.h[i] / 2.0 - py;
+                    double d2 = dx * dx + dy * dy;
+                    if (d2 < best) {
+                        best = d2;
+                        tx = dx;
+                        ty = dy;
+                    }
+                    if (d2 < danger2 && d2 > 0) {
+                        // strength dangerRadius/d: >= 1 inside the radius, closest threat dominates
+                        pushX -= dx / d2 * dangerRadius;
+                        pushY -= dy / d2 * dangerRadius;
+                    }
+                }
+            }
+        }
+
+        input.clear();
+        boolean hasTarget = best != Double.MAX_VALUE;
+        input.aimX = (int) (px + (hasTarget ? tx : 1));
+        input.aimY = (int) (py + (hasTarget ? ty : 0));
+
+        if (cooldown > 0) cooldown--;
+        if (hasTarget && cooldown == 0) {
+            input.fire = true;
+            input.fireX = input.aimX;
+            input.fireY = input.aimY;
+            cooldown = fireEvery;
+        }
+
+        // strafe sideways around the nearest threat while backing off
+        double sideX = -pushY * 0.5, sideY = pushX * 0.5;
+        pushX += sideX;
+        pushY += sideY;
+
+        // stay off the walls
+        if (px < wallMargin) pushX += 1;
+        if (px > world.arenaWidth - wallMargin) pushX -= 1;
+        if (py < wallMargin) pushY += 1;
+        if (py > world.arenaHeight - wallMargin) pushY -= 1;
+
+        input.left = pushX < 0;
+        input.right = pushX > 0;
+        input.up = pushY < 0;
+        input.down = pushY > 0;
+    }
+}
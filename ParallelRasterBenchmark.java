@@ -0,0 +1,65 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * Software-layer frame time on 1 thread against ParallelRasterizer at
+ * 1, 2, 4... threads, over a crowded 800x600 world. Every parallel frame is
+ * also checked to be pixel-identical to the single-threaded one.
+ *
+ *   java ParallelRasterBenchmark [entities] [frames] [maxThreads]
+ */
+public class ParallelRasterBenchmark {
+    static final Color TRANSPARENT = new Color(0, 0, 0, 0);
+
+    public static void main(String[] args) {
+        int entities = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+        int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+
+        GameRandom r = new GameRandom(42);
+        GameWorld world = new GameWorld(42);
+        for (int i = 0; i < entities; i++) {
+            if (i % 4 == 0) world.spawnEnemy(r.nextInt(GameWorld.WIDTH), r.nextInt(GameWorld.HEIGHT));
+            else world.spawnBullet(r.nextInt(GameWorld.WIDTH), r.nextInt(GameWorld.HEIGHT), r.nextDouble() * 6.28);
+        }
+
+        RenderSystem renderer = new RenderSystem();
+        for (int layer = RenderSystem.LAYER_PLAYER; layer <= RenderSystem.LAYER_ENEMIES; layer++) {
+            renderer.setSoftware(layer, true);
+        }
+        BufferedImage target = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        renderer.setTarget(target, 1.0);
+        int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+
+        renderer.setParallel(null);
+        double single = 0;
+        for (int round = 0; round < 3; round++) single = time(renderer, target, world, frames); // warm-up rounds
+        int[] expected = pixels.clone();
+        System.out.printf("%d entities: single-threaded %.2f ms/frame%n", entities, single);
+
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            ParallelRasterizer parallel = new ParallelRasterizer(threads);
+            renderer.setParallel(parallel);
+            double ms = 0;
+            for (int round = 0; round < 3; round++) ms = time(renderer, target, world, frames);
+            boolean identical = Arrays.equals(expected, pixels);
+            System.out.printf("%2d threads: %.2f ms/frame, %.2fx vs single-threaded, %s%n",
+                    threads, ms, single / ms, identical ? "pixel-identical" : "OUTPUT DIFFERS");
+        }
+    }
+
+    static double time(RenderSystem renderer, BufferedImage target, GameWorld world, int frames) {
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) {
+            Graphics2D g = target.createGraphics();
+            g.setBackground(TRANSPARENT);
+            g.clearRect(0, 0, target.getWidth(), target.getHeight());
+            renderer.draw(g, world);
+            g.dispose();
+        }
+        return (System.nanoTime() - start) / 1e6 / frames;
+    }
+}
@@ -0,0 +1,39 @@
+/**
+ * Turns the held input into player movement: face the aim point, step in
+ * the held directions, stay inside the arena. In fixed-point mode the
+ * facing comes from Fixed.atan2, so it is the same on every machine.
+ */
+public class PlayerControlSystem {
+    private final Query q;
+
+    public PlayerControlSystem(Ecs ecs) {
+        q = ecs.query(Components.PLAYER | Components.POSITION | Components.SIZE | Components.ROTATION);
+    }
+
+    public void run(InputFrame in, int arenaWidth, int arenaHeight, boolean fixedPoint) {
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y, angle = ch.angle;
+                int[] w = ch.w, h = ch.h;
+                for (int i = 0; i < ch.count; i++) {
+                    // Update angle to face mouse
+                    double dx = in.aimX - (x[i] + w[i] / 2.0), dy = in.aimY - (y[i] + h[i] / 2.0);
+                    angle[i] = fixedPoint ? Fixed.toRadians(Fixed.atan2(Fixed.toFixed(dy), Fixed.toFixed(dx)))
+                            : Math.atan2(dy, dx);
+
+                    // Movement
+                    if (in.up) y[i] -= GameWorld.PLAYER_SPEED;
+                    if (in.down) y[i] += GameWorld.PLAYER_SPEED;
+                    if (in.left) x[i] -= GameWorld.PLAYER_SPEED;
+                    if (in.right) x[i] += GameWorld.PLAYER_SPEED;
+
+                    // Keep player inside the arena
+                    x[i] = Math.max(0, Math.min(arenaWidth - w[i], x[i]));
+                    y[i] = Math.max(0, Math.min(arenaHeight - h[i], y[i]));
+                }
+            }
+        }
+    }
+}
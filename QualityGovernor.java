@@ -0,0 +1,101 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+
+/**
+ * Watches recent frame times and trades render quality for speed.
+ * Steps down as soon as the average frame cost goes over budget, and only
+ * steps back up after a longer stretch with plenty of headroom (hysteresis),
+ * so we don't flip between two levels every other second.
+ */
+public class QualityGovernor {
+    // One entry per level, best quality first
+    static final String[] LEVEL_NAMES   = {"HIGH", "MEDIUM", "LOW", "MINIMAL"};
+    static final double[] RENDER_SCALE  = {1.0, 0.85, 0.7, 0.5};
+    static final boolean[] ANTIALIAS    = {true, true, false, false};
+    static final int[] BACKGROUND_DETAIL = {2, 2, 1, 0}; // 2 = full image, 1 = half-res copy, 0 = flat fill
+    static final int[] EFFECT_DETAIL    = {2, 2, 1, 0}; // 2 = every damage number, 1 = the newest few, 0 = none
+    static final String[] EFFECT_NAMES  = {"off", "reduced", "all"};
+    static final Object[] INTERPOLATION = {
+        RenderingHints.VALUE_INTERPOLATION_BICUBIC,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+        RenderingHints.VALUE_INTERPOLATION_BILINEAR,
+        RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR
+    };
+
+    static final int WINDOW = 30;          // frames averaged for a decision
+    static final int UPGRADE_FRAMES = 120; // frames of headroom needed before stepping up
+    static final int COOLDOWN_FRAMES = 60; // frames to wait after any change
+    static final double HEADROOM = 0.6;    // step up only below 60% of budget
+
+    private final long budgetNanos;
+    private final long[] samples = new long[WINDOW];
+    private int sampleCount = 0;
+    private int next = 0;
+    private long sum = 0;
+
+    private int level = 0;
+    private int cooldown = 0;
+    private int headroomFrames = 0;
+
+    public QualityGovernor(double budgetMillis) {
+        this.budgetNanos = (long) (budgetMillis * 1_000_000);
+    }
+
+    // Feed the cost of one frame (update + paint)
+    public void recordFrame(long frameNanos) {
+        sum -= samples[next];
+        samples[next] = frameNanos;
+        sum += frameNanos;
+        next = (next + 1) % WINDOW;
+        if (sampleCount < WINDOW) sampleCount++;
+
+        if (cooldown > 0) {
+            cooldown--;
+            return;
+        }
+        if (sampleCount < WINDOW) return;
+
+        long avg = sum / WINDOW;
+        if (avg > budgetNanos) {
+            headroomFrames = 0;
+            if (level < LEVEL_NAMES.length - 1) setLevel(level + 1, avg);
+        } else if (avg < budgetNanos * HEADROOM) {
+            if (++headroomFrames >= UPGRADE_FRAMES && level > 0) setLevel(level - 1, avg);
+        } else {
+            headroomFrames = 0;
+        }
+    }
+
+    private void setLevel(int newLevel, long avg) {
+        System.out.printf("Quality %s -> %s (avg frame %.2f ms, budget %.2f ms)%n",
+                LEVEL_NAMES[level], LEVEL_NAMES[newLevel], avg / 1e6, budgetNanos / 1e6);
+        level = newLevel;
+        cooldown = COOLDOWN_FRAMES;
+        headroomFrames = 0;
+    }
+
+    // Rendering hints for drawing the world at the current level
+    public void applyHints(Graphics2D g) {
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, ANTIALIAS[level]
+                ? RenderingHints.VALUE_ANTIALIAS_ON : RenderingHints.VALUE_ANTIALIAS_OFF);
+        g.setRenderingHint(RenderingHints.KEY_RENDERING, level == 0
+                ? RenderingHints.VALUE_RENDER_QUALITY : RenderingHints.VALUE_RENDER_SPEED);
+        g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, INTERPOLATION[level]);
+    }
+
+    public int level() { return level; }
+    public String levelName() { return LEVEL_NAMES[level]; }
+    public double renderScale() { return RENDER_SCALE[level]; }
+    public Object interpolation() { return INTERPOLATION[level]; }
+    public int backgroundDetail() { return BACKGROUND_DETAIL[level]; }
+    public int effectDetail() { return EFFECT_DETAIL[level]; }
+    public String effectName() { return EFFECT_NAMES[EFFECT_DETAIL[level]]; }
+
+    public double averageFrameMillis() {
+        return sampleCount == 0 ? 0 : (sum / (double) sampleCount) / 1e6;
+    }
+
+    public double budgetMillis() {
+        return budgetNanos / 1e6;
+    }
+}
@@ -0,0 +1,31 @@
+/**
+ * Cached list of archetypes whose mask contains every 'required' bit.
+ * Owned by Ecs, which appends to it whenever a matching archetype is
+ * created, so systems can hold on to one and just loop over it each tick.
+ */
+public class Query {
+    final int required;
+    Archetype[] archetypes = new Archetype[4];
+    int count = 0;
+
+    Query(int required) {
+        this.required = required;
+    }
+
+    void offer(Archetype arch) {
+        if (!Components.has(arch.mask, required)) return;
+        if (count == archetypes.length) {
+            Archetype[] grown = new Archetype[count * 2];
+            System.arraycopy(archetypes, 0, grown, 0, count);
+            archetypes = grown;
+        }
+        archetypes[count++] = arch;
+    }
+
+    // Number of matching entities
+    public int size() {
+        int n = 0;
+        for (int i = 0; i < count; i++) n += archetypes[i].size;
+        return n;
+    }
+}
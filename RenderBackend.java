@@ -0,0 +1,285 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.Toolkit;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the Java2D pipeline the game runs on. The sun.java2d.* properties
+ * only take effect before AWT starts, and a pipeline that fails falls back
+ * to software without a word, so each candidate for this OS is tried in a
+ * child JVM of its own: it draws a small offscreen scene (a VolatileImage
+ * target, translucent sprites, some rotated, fills) for PROBE_FRAMES frames
+ * and prints how long a frame took and what it actually ran on.
+ *
+ * The fastest is saved to FILE with every candidate's time and reapplied
+ * on later starts without probing again, until the Java version changes
+ * or java Game --probe-pipelines asks for a new probe. --pipeline NAME
+ * skips the probe, and any sun.java2d.* -D on the command line turns all
+ * of this off.
+ *
+ *   java RenderBackend [NAME]    probe every candidate (or just NAME) and print the results
+ */
+public final class RenderBackend {
+    private RenderBackend() {}
+
+    static final String FILE = "pipeline.properties";
+    static final int PROBE_FRAMES = 300, WARM_UP_FRAMES = 100;
+    static final long PROBE_TIMEOUT_SECONDS = 20;
+    private static final String RESULT = "PIPELINE-PROBE";
+
+    static final class Candidate {
+        final String name;
+        final String[] properties; // key=value
+
+        Candidate(String name, String... properties) {
+            this.name = name;
+            this.properties = properties;
+        }
+    }
+
+    // what was chosen and why, for the debug overlay
+    private static String chosen = "default", source = "not probed";
+
+    public static String chosen() {
+        return chosen;
+    }
+
+    public static String source() {
+        return source;
+    }
+
+    static Candidate[] candidates() {
+        String os = System.getProperty("os.name", "").toLowerCase();
+        if (os.startsWith("windows")) {
+            return new Candidate[] {
+                new Candidate("software", "sun.java2d.d3d=false", "sun.java2d.opengl=false", "sun.java2d.noddraw=true"),
+                new Candidate("d3d", "sun.java2d.d3d=true", "sun.java2d.opengl=false"),
+                new Candidate("opengl", "sun.java2d.d3d=false", "sun.java2d.opengl=true"),
+            };
+        }
+        if (os.startsWith("mac")) {
+            return new Candidate[] {
+                new Candidate("metal", "sun.java2d.metal=true"),
+                new Candidate("opengl", "sun.java2d.metal=false", "sun.java2d.opengl=true"),
+            };
+        }
+        return new Candidate[] { // X11
+            new Candidate("software", "sun.java2d.xrender=false", "sun.java2d.opengl=false"),
+            new Candidate("xrender", "sun.java2d.xrender=true", "sun.java2d.opengl=false"),
+            new Candidate("opengl", "sun.java2d.opengl=true"),
+        };
+    }
+
+    static Candidate find(String name) {
+        for (Candidate c : candidates()) if (c.name.equals(name)) return c;
+        return null;
+    }
+
+    // Call from main before anything touches AWT. 'force' is a candidate name or null.
+    public static void select(boolean reprobe, String force) {
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("sun.java2d.")) {
+                source = "-D" + key + " on the command line";
+                return;
+            }
+        }
+        if (GraphicsEnvironment.isHeadless()) {
+            source = "headless";
+            return;
+        }
+        if (force != null) {
+            Candidate c = find(force);
+            if (c == null) {
+                System.err.println("Unknown pipeline '" + force + "', using the default");
+            } else {
+                apply(c, "--pipeline");
+            }
+            return;
+        }
+
+        Properties saved = load();
+        String version = System.getProperty("java.version");
+        if (!reprobe && saved != null && version.equals(saved.getProperty("java.version"))) {
+            Candidate c = find(saved.getProperty("pipeline", ""));
+            if (c != null) apply(c, "saved in " + FILE);
+            else source = "saved in " + FILE;
+            return;
+        }
+
+        Properties results = new Properties();
+        results.setProperty("java.version", version);
+        Candidate best = null;
+        double bestMillis = Double.MAX_VALUE;
+        for (Candidate c : candidates()) {
+            String[] r = probe(c);
+            if (r == null) {
+                results.setProperty(c.name, "failed");
+                continue;
+            }
+            double millis = Double.parseDouble(r[0]);
+            results.setProperty(c.name, String.format("%.3f ms/frame on %s, target accelerated %s", millis, r[2], r[1]));
+            System.out.printf("Pipeline %s: %.3f ms/frame on %s%n", c.name, millis, r[2]);
+            if (millis < bestMillis) {
+                bestMillis = millis;
+                best = c;
+            }
+        }
+        results.setProperty("pipeline", best == null ? "default" : best.name);
+        save(results);
+        if (best != null) apply(best, String.format("probed, %.3f ms/frame", bestMillis));
+        else source = "every probe failed";
+    }
+
+    private static void apply(Candidate c, String why) {
+        for (String p : c.properties) {
+            int eq = p.indexOf('=');
+            System.setProperty(p.substring(0, eq), p.substring(eq + 1));
+        }
+        chosen = c.name;
+        source = why;
+        System.out.println("Java2D pipeline: " + c.name + " (" + why + ")");
+    }
+
+    private static Properties load() {
+        Path file = Paths.get(FILE);
+        if (!Files.exists(file)) return null;
+        try (Reader in = Files.newBufferedReader(file)) {
+            Properties p = new Properties();
+            p.load(in);
+            return p;
+        } catch (IOException e) {
+            System.err.println("Could not read '" + FILE + "', probing again: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void save(Properties p) {
+        try (Writer out = Files.newBufferedWriter(Paths.get(FILE))) {
+            p.store(out, "Java2D pipeline probe (delete, or run with --probe-pipelines, to probe again)");
+        } catch (IOException e) {
+            System.err.println("Could not save '" + FILE + "': " + e.getMessage());
+        }
+    }
+
+    // {ms per frame, target accelerated, graphics config class} from a child JVM, or null
+    static String[] probe(Candidate c) {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String p : c.properties) cmd.add("-D" + p);
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(RenderBackend.class.getName());
+        cmd.add("--child");
+        try {
+            Process child = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+            // drained on a thread of its own: a child stuck in a broken driver never closes its
+            // output, and a full pipe would stall one that is still working
+            String[][] result = new String[1][];
+            Thread drain = new Thread(() -> {
+                try (BufferedReader out = new BufferedReader(new InputStreamReader(child.getInputStream()))) {
+                    for (String line; (line = out.readLine()) != null; ) {
+                        if (line.startsWith(RESULT + " ")) result[0] = line.substring(RESULT.length() + 1).split(" ");
+                    }
+                } catch (IOException e) {
+                    // the child was killed, or died; no result
+                }
+            }, "pipeline-probe-output");
+            drain.setDaemon(true);
+            drain.start();
+            if (!child.waitFor(PROBE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                System.err.println("Pipeline probe " + c.name + " hung, killed after " + PROBE_TIMEOUT_SECONDS + " s");
+                child.destroyForcibly();
+                return null;
+            }
+            drain.join(); // the child has exited, so its output ends
+            String[] r = result[0];
+            return child.exitValue() == 0 && r != null && r.length == 3 ? r : null;
+        } catch (IOException e) {
+            System.err.println("Could not probe pipeline " + c.name + ": " + e.getMessage());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    // The child side: draw the probe scene and print RESULT ms accelerated configClass
+    private static void runProbe() {
+        GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        int w = GameWorld.WIDTH, h = GameWorld.HEIGHT;
+        VolatileImage target = gc.createCompatibleVolatileImage(w, h);
+        BufferedImage sprite = gc.createCompatibleImage(40, 40, Transparency.TRANSLUCENT);
+        Graphics2D sg = sprite.createGraphics();
+        sg.setColor(new Color(255, 80, 80, 200));
+        sg.fillPolygon(new int[] {20, 38, 2}, new int[] {2, 38, 38}, 3);
+        sg.dispose();
+
+        long start = 0;
+        for (int f = 0; f < WARM_UP_FRAMES + PROBE_FRAMES; f++) {
+            if (f == WARM_UP_FRAMES) {
+                Toolkit.getDefaultToolkit().sync();
+                start = System.nanoTime();
+            }
+            if (target.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) target = gc.createCompatibleVolatileImage(w, h);
+            Graphics2D g = target.createGraphics();
+            g.setColor(Color.BLACK);
+            g.fillRect(0, 0, w, h);
+            for (int i = 0; i < 500; i++) { // sprites, every fourth one rotated like a ship
+                int x = (i * 97 + f * 3) % (w - 40), y = (i * 53 + f * 2) % (h - 40);
+                if (i % 4 == 0) {
+                    Graphics2D rg = (Graphics2D) g.create();
+                    rg.rotate(i + f * 0.05, x + 20, y + 20);
+                    rg.drawImage(sprite, x, y, null);
+                    rg.dispose();
+                } else {
+                    g.drawImage(sprite, x, y, null);
+                }
+            }
+            g.setColor(Color.YELLOW);
+            for (int i = 0; i < 300; i++) g.fillRect((i * 31 + f) % w, (i * 17 + f) % h, 4, 4); // bullets
+            g.dispose();
+        }
+        target.getSnapshot(); // reading pixels back waits for the pipeline to finish every frame
+        double millis = (System.nanoTime() - start) / 1e6 / PROBE_FRAMES;
+        System.out.printf(Locale.ROOT, "%s %.4f %b %s%n", RESULT, millis, target.getCapabilities().isAccelerated(),
+                gc.getClass().getSimpleName());
+    }
+
+    // For the overlay: "yes" / "no" / "-" (no image)
+    public static String accelerated(Image img, GraphicsConfiguration gc) {
+        if (img == null || gc == null) return "-";
+        return img.getCapabilities(gc).isAccelerated() ? "yes" : "no";
+    }
+
+    public static void main(String[] args) {
+        if (args.length > 0 && args[0].equals("--child")) {
+            runProbe();
+            System.exit(0); // AWT threads would keep the JVM alive
+        }
+        for (Candidate c : candidates()) {
+            if (args.length > 0 && !args[0].equals(c.name)) continue;
+            String[] r = probe(c);
+            System.out.println(c.name + ": " + (r == null ? "failed"
+                    : r[0] + " ms/frame, target accelerated " + r[1] + ", config " + r[2]));
+        }
+    }
+}
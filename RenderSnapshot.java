@@ -0,0 +1,119 @@
+/**
+ * Everything a frame needs to draw one tick of the game, copied out of the
+ * world into plain arrays and a DrawQueue. The sim thread fills one, hands it over through
+ * a TripleBuffer and never touches it again until the renderer has let go,
+ * so drawing never reads state the simulation is changing.
+ *
+ * Buffers only grow, so once a game has peaked a capture allocates nothing.
+ */
+public class RenderSnapshot {
+    long tick;
+    long tickNanos;         // how long the sim took to produce this tick
+    long inputNanos;        // event time of the latest input this tick reflects (0: none yet)
+    boolean gameOver;
+    int score;
+    int cameraX, cameraY;
+
+    // player
+    double px, py, pangle;
+    int pw, ph, health, maxHealth;
+
+    int bulletCount, enemyCount;
+    final DrawQueue commands = new DrawQueue(); // player, bullets and enemies near the view
+
+    // overlay figures
+    int entities, awakeEnemies, awakeChunks;
+    int shots, kills, hitsTaken;
+    final DamageNumbers damageNumbers = new DamageNumbers();
+
+    public void capture(GameWorld world, Camera camera, GameStats stats, DamageNumbers numbers) {
+        tick = world.ticks;
+        gameOver = world.gameOver;
+        score = world.score;
+        cameraX = camera != null ? camera.x : 0;
+        cameraY = camera != null ? camera.y : 0;
+
+        Chunk pc = world.ecs.chunk(world.player);
+        int pr = world.ecs.row(world.player);
+        px = pc.x[pr];
+        py = pc.y[pr];
+        pw = pc.w[pr];
+        ph = pc.h[pr];
+        pangle = pc.angle[pr];
+        health = pc.health[pr];
+        maxHealth = pc.maxHealth[pr];
+
+        // draw commands; with a camera, only what is near its view (the renderer culls again)
+        double minX = -Double.MAX_VALUE, minY = -Double.MAX_VALUE, maxX = Double.MAX_VALUE, maxY = Double.MAX_VALUE;
+        if (camera != null) {
+            minX = camera.x - RenderSystem.CULL_MARGIN;
+            minY = camera.y - RenderSystem.CULL_MARGIN;
+            maxX = camera.x + camera.width + RenderSystem.CULL_MARGIN;
+            maxY = camera.y + camera.height + RenderSystem.CULL_MARGIN;
+        }
+        commands.clear();
+        commands.add(RenderSystem.LAYER_PLAYER, DrawQueue.SPRITE_PLAYER, Sprite.frame(pangle, RenderSystem.FRAMES),
+                px, py, pw, ph);
+
+        Query bullets = world.bullets;
+        int k = 0;
+        for (int a = 0; a < bullets.count; a++) {
+            Archetype arch = bullets.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y;
+                int[] w = ch.w, h = ch.h;
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (x[i] + w[i] < minX || x[i] > maxX || y[i] + h[i] < minY || y[i] > maxY) continue;
+                    commands.add(RenderSystem.LAYER_BULLETS, DrawQueue.SPRITE_BULLET, 0, x[i], y[i], w[i], h[i]);
+                }
+                k += ch.count;
+            }
+        }
+        bulletCount = k;
+
+        // enemies face the player; the angle is bucketed into the pre-rotated frames here
+        double pcx = px + pw / 2, pcy = py + ph / 2;
+        Query enemies = world.enemies;
+        k = 0;
+        for (int a = 0; a < enemies.count; a++) {
+            Archetype arch = enemies.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                double[] x = ch.x, y = ch.y;
+                int[] w = ch.w, h = ch.h;
+                for (int i = 0, n = ch.count; i < n; i++) {
+                    if (x[i] + w[i] < minX || x[i] > maxX || y[i] + h[i] < minY || y[i] > maxY) continue;
+                    double angle = Math.atan2(pcy - (y[i] + h[i] / 2), pcx - (x[i] + w[i] / 2));
+                    commands.add(RenderSystem.LAYER_ENEMIES, DrawQueue.SPRITE_ENEMY, Sprite.frame(angle, RenderSystem.FRAMES),
+                            x[i], y[i], w[i], h[i]);
+                }
+                k += ch.count;
+            }
+        }
+        enemyCount = k;
+
+        entities = world.ecs.size();
+        awakeEnemies = world.awakeEnemies;
+        awakeChunks = world.map != null ? world.map.awakeChunks() : 0;
+        if (stats != null) {
+            shots = stats.shots;
+            kills = stats.kills;
+            hitsTaken = stats.hitsTaken;
+        }
+        if (numbers != null) damageNumbers.copyFrom(numbers);
+    }
+
+    public double playerCenterX() {
+        return px + pw / 2.0;
+    }
+
+    public double playerCenterY() {
+        return py + ph / 2.0;
+    }
+
+    // fraction of shots that killed something
+    public double accuracy() {
+        return shots == 0 ? 0 : kills / (double) shots;
+    }
+}
@@ -0,0 +1,264 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Path2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a RenderSnapshot's DrawQueue: radix-sorted by layer and sprite, so
+ * the player, then bullets, then enemies (rotated to face the player), and
+ * each run of one layer and sprite drawn as a batch with one color, image
+ * or blitter setup. Bullets and enemies outside the view rectangle are
+ * skipped.
+ *
+ * Each of the three layers is drawn either with Graphics2D shapes or, once
+ * a TYPE_INT_ARGB_PRE target is set, by the SoftwareBlitter from
+ * pre-rotated sprites of the same shapes (rebuilt if the scale changes).
+ * With a ParallelRasterizer set, software layers are queued and drawn
+ * across cores at the end of each layer instead of blitted one by one.
+ *
+ * Textured, the Graphics2D layers draw the images given to setTextures
+ * (SpriteManager's, in game) instead of shapes, each from the mip level
+ * that fits its size on screen.
+ */
+public class RenderSystem {
+    static final int CULL_MARGIN = 20; // enemy noses reach past their body
+
+    public static final int LAYER_PLAYER = 0, LAYER_BULLETS = 1, LAYER_ENEMIES = 2;
+    static final String[] LAYER_NAMES = {"player", "bullets", "enemies"};
+    static final int FRAMES = 64; // pre-rotated angles per ship sprite
+
+    private final int[] noseX = new int[3], noseY = new int[3];
+    private static final Color[] COLORS = {Color.CYAN, Color.YELLOW, Color.RED}; // by DrawQueue sprite id
+    private int visible, commands, batches;
+    private long sortNanos;
+
+    // software path
+    private final boolean[] software = new boolean[3];
+    private final SoftwareBlitter blitter = new SoftwareBlitter();
+    private ParallelRasterizer parallel;
+    private BufferedImage target;
+    private double scale = 1;
+    private double spriteScale = 0;
+    private Sprite[] playerFrames, enemyFrames;
+    private Sprite bulletSprite;
+    private boolean textured;
+    private final MipChain[] textures = new MipChain[3];
+    private final RenderSnapshot scratch = new RenderSnapshot(); // for drawing a world directly
+
+    // Draw straight from a world (same thread); the whole arena is the view
+    public void draw(Graphics2D g, GameWorld world) {
+        draw(g, world, 0, 0, world.arenaWidth, world.arenaHeight);
+    }
+
+    public void draw(Graphics2D g, GameWorld world, double viewX, double viewY, double viewW, double viewH) {
+        scratch.capture(world, null, null, null);
+        draw(g, scratch, viewX, viewY, viewW, viewH);
+    }
+
+    // View rectangle in world coordinates; its top-left is the target's (0, 0)
+    public void draw(Graphics2D g, RenderSnapshot s, double viewX, double viewY, double viewW, double viewH) {
+        double minX = viewX - CULL_MARGIN, minY = viewY - CULL_MARGIN;
+        double maxX = viewX + viewW + CULL_MARGIN, maxY = viewY + viewH + CULL_MARGIN;
+        if (target != null && spriteScale != scale) buildSprites();
+
+        AffineTransform old = g.getTransform();
+        DrawQueue q = s.commands;
+        long sortStart = System.nanoTime();
+        q.sort();
+        sortNanos = System.nanoTime() - sortStart;
+        int drawn = 0, runs = 0;
+        for (int k = 0, n = q.size(); k < n; ) {
+            // one batch: same layer and sprite, so one path, color and image for all of it
+            int first = q.at(k), key = q.key(first), layer = q.layer(first), sprite = q.sprite(first);
+            boolean soft = isSoftware(layer);
+            Sprite[] frames = sprite == DrawQueue.SPRITE_PLAYER ? playerFrames : sprite == DrawQueue.SPRITE_ENEMY ? enemyFrames : null;
+            MipChain image = textured ? chainFor(sprite) : null;
+            int nose = sprite == DrawQueue.SPRITE_PLAYER ? 15 : 10;
+            g.setColor(COLORS[sprite]);
+            runs++;
+            for (; k < n && DrawQueue.sameBatch(q.key(q.at(k)), key); k++) {
+                int c = q.at(k);
+                double x = q.x(c), y = q.y(c);
+                int w = q.w(c), h = q.h(c);
+                // the player is always drawn; the camera keeps it on screen
+                if (sprite != DrawQueue.SPRITE_PLAYER && (x + w < minX || x > maxX || y + h < minY || y > maxY)) continue;
+                drawn++;
+                if (soft) {
+                    // ship frames are centered on w / 2 (int division), bullets on w / 2.0, as before
+                    if (frames == null) blit(bulletSprite, toTarget(x + w / 2.0 - viewX), toTarget(y + h / 2.0 - viewY));
+                    else blit(frames[q.frame(c)], toTarget(x + w / 2 - viewX), toTarget(y + h / 2 - viewY));
+                    continue;
+                }
+                // the player keeps its exact aim; everything else turns in FRAMES steps
+                double angle = sprite == DrawQueue.SPRITE_PLAYER ? s.pangle : q.frame(c) * 2 * Math.PI / FRAMES;
+                if (sprite == DrawQueue.SPRITE_BULLET) {
+                    if (image != null) drawImage(g, image, x, y, w, h, 0);
+                    else g.fillOval((int) x, (int) y, w, h);
+                } else if (image != null) {
+                    drawImage(g, image, x, y, w, h, angle);
+                    g.setTransform(old);
+                } else {
+                    drawShip(g, x, y, w, h, angle, nose);
+                    g.setTransform(old);
+                }
+            }
+            // a software layer has to land before the next one draws over it
+            if (soft && (k == n || q.layer(q.at(k)) != layer)) flush();
+        }
+        visible = drawn;
+        commands = q.size();
+        batches = runs;
+    }
+
+    private MipChain chainFor(int sprite) {
+        return textures[sprite];
+    }
+
+    private void blit(Sprite s, int x, int y) {
+        if (parallel != null) parallel.add(s, x, y);
+        else blitter.blit(s, x, y);
+    }
+
+    // End of a software layer: anything queued has to land before the next layer draws
+    private void flush() {
+        if (parallel != null) parallel.flush(target);
+    }
+
+    // entities drawn by the last draw()
+    public int visible() {
+        return visible;
+    }
+
+    // draw commands, batches and sort time of the last draw()
+    public int commands() {
+        return commands;
+    }
+
+    public int batches() {
+        return batches;
+    }
+
+    public long sortNanos() {
+        return sortNanos;
+    }
+
+    // Image the software layers write into, drawn at 'scale' target pixels per world pixel.
+    // Null turns the software path off (all layers fall back to Graphics2D).
+    public void setTarget(BufferedImage target, double scale) {
+        this.target = target;
+        this.scale = scale;
+        if (target != null) blitter.setTarget(target);
+    }
+
+    // Rasterize software layers across cores (null: one sprite at a time on this thread)
+    public void setParallel(ParallelRasterizer parallel) {
+        this.parallel = parallel;
+    }
+
+    public ParallelRasterizer parallel() {
+        return parallel;
+    }
+
+    // Images for the textured path, by DrawQueue sprite id; a null one is drawn as its shape
+    public void setTextures(MipChain player, MipChain bullet, MipChain enemy) {
+        textures[DrawQueue.SPRITE_PLAYER] = player;
+        textures[DrawQueue.SPRITE_BULLET] = bullet;
+        textures[DrawQueue.SPRITE_ENEMY] = enemy;
+    }
+
+    public void setTextured(boolean on) {
+        textured = on;
+    }
+
+    public boolean isTextured() {
+        return textured;
+    }
+
+    public void setSoftware(int layer, boolean on) {
+        software[layer] = on;
+    }
+
+    public boolean isSoftware(int layer) {
+        return software[layer] && target != null;
+    }
+
+    // whether any layer wants the software path (so the caller should supply a target)
+    public boolean wantsSoftware() {
+        return software[LAYER_PLAYER] || software[LAYER_BULLETS] || software[LAYER_ENEMIES];
+    }
+
+    public boolean toggleSoftware(int layer) {
+        software[layer] = !software[layer];
+        return software[layer];
+    }
+
+    private int toTarget(double worldOffset) {
+        return (int) Math.floor(worldOffset * scale + 0.5);
+    }
+
+    // Body rectangle plus a nose triangle, rotated about the center (caller restores the transform)
+    private void drawShip(Graphics2D g, double x, double y, int w, int h, double angle, int nose) {
+        g.rotate(angle, x + w / 2, y + h / 2);
+        g.fillRect((int) x, (int) y, w, h);
+        noseX[0] = (int) x + w; noseX[1] = (int) x + w + nose; noseX[2] = (int) x + w;
+        noseY[0] = (int) y;     noseY[1] = (int) y + h / 2;     noseY[2] = (int) y + h;
+        g.fillPolygon(noseX, noseY, 3);
+    }
+
+    // The mip level closest to the box's size on screen, stretched over the box and rotated
+    // about its center (caller restores the transform)
+    private void drawImage(Graphics2D g, MipChain chain, double x, double y, int w, int h, double angle) {
+        double onScreen = Math.hypot(g.getTransform().getScaleX(), g.getTransform().getShearY());
+        BufferedImage img = chain.level(chain.levelFor(w * onScreen, h * onScreen, 0));
+        if (angle != 0) g.rotate(angle, x + w / 2.0, y + h / 2.0);
+        g.drawImage(img, (int) x, (int) y, w, h, null);
+    }
+
+    private void buildSprites() {
+        spriteScale = scale;
+        playerFrames = shipFrames(GameWorld.PLAYER_WIDTH, GameWorld.PLAYER_HEIGHT, 15, Color.CYAN);
+        enemyFrames = shipFrames(GameWorld.ENEMY_SIZE, GameWorld.ENEMY_SIZE, 10, Color.RED);
+        bulletSprite = bulletSprite(scale);
+    }
+
+    // drawShip's shape around its center, at FRAMES angles
+    private Sprite[] shipFrames(int w, int h, int nose, Color color) {
+        return shipFrames(w, h, nose, color, scale);
+    }
+
+    // Also used at scale 1 for the collision masks, so hits match what is drawn
+    static Sprite[] shipFrames(int w, int h, int nose, Color color, double scale) {
+        Path2D.Double shape = new Path2D.Double();
+        shape.append(new Rectangle(-w / 2, -h / 2, w, h), false);
+        shape.moveTo(w - w / 2, -h / 2);
+        shape.lineTo(w - w / 2 + nose, 0);
+        shape.lineTo(w - w / 2, h - h / 2);
+        shape.closePath();
+
+        int side = (int) Math.ceil(2 * Math.hypot(w / 2.0 + nose, h / 2.0) * scale) + 2;
+        Sprite[] frames = new Sprite[FRAMES];
+        for (int f = 0; f < FRAMES; f++) {
+            double angle = f * 2 * Math.PI / FRAMES;
+            frames[f] = Sprite.render(side, side, side / 2, side / 2, g -> {
+                g.scale(scale, scale);
+                g.rotate(angle);
+                g.setColor(color);
+                g.fill(shape);
+            });
+        }
+        return frames;
+    }
+
+    static Sprite bulletSprite(double scale) {
+        int size = GameWorld.BULLET_SIZE;
+        int side = (int) Math.ceil(size * scale) + 2;
+        return Sprite.render(side, side, side / 2, side / 2, g -> {
+            g.scale(scale, scale);
+            g.setColor(Color.YELLOW);
+            g.fill(new Ellipse2D.Double(-size / 2.0, -size / 2.0, size, size));
+        });
+    }
+}
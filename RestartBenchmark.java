@@ -0,0 +1,77 @@
+import java.io.File;
+import java.io.IOException;
+import javax.imageio.ImageIO;
+
+/**
+ * What a restart costs, from the request to the first snapshot of the new
+ * game: building everything again the way menu -> game used to (decode
+ * the menu background, new world, new map, new SimulationLoop) against
+ * stopping the long-lived loop and resetting its world in place. Each
+ * restart follows a game played up to 'ticks' ticks, so there is something
+ * to clear.
+ *
+ *   java RestartBenchmark [restarts] [ticks]
+ */
+public class RestartBenchmark {
+    public static void main(String[] args) {
+        int restarts = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : 600;
+
+        System.out.printf("%d restarts after %d-tick games%n", restarts, ticks);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            double fresh = runFresh(restarts, ticks);
+            double inPlace = runInPlace(restarts, ticks);
+            System.out.printf("round %d: rebuilt %.3f ms, reset in place %.3f ms (%.0fx)%n",
+                    round, fresh, inPlace, fresh / inPlace);
+        }
+    }
+
+    // ms per restart
+    static double runFresh(int restarts, int ticks) {
+        long total = 0;
+        SimulationLoop sim = null;
+        for (int i = 0; i < restarts; i++) {
+            long start = System.nanoTime();
+            try {
+                ImageIO.read(new File("menu_background.png"));
+            } catch (IOException e) {
+                // the old menu carried on without it too
+            }
+            GameWorld world = new GameWorld(i);
+            world.setMap(TileMap.generate(128, 128, 1));
+            sim = new SimulationLoop(world);
+            sim.start(i);
+            total += System.nanoTime() - start;
+            sim.stop();
+            play(world, ticks);
+        }
+        return total / 1e6 / restarts;
+    }
+
+    static double runInPlace(int restarts, int ticks) {
+        GameWorld world = new GameWorld(0);
+        world.setMap(TileMap.generate(128, 128, 1));
+        SimulationLoop sim = new SimulationLoop(world);
+        long total = 0;
+        for (int i = 0; i < restarts; i++) {
+            long start = System.nanoTime();
+            sim.start(i);
+            total += System.nanoTime() - start;
+            sim.stop();
+            play(world, ticks);
+        }
+        return total / 1e6 / restarts;
+    }
+
+    // Fill the world back up between restarts (on this thread; the loop is stopped)
+    static void play(GameWorld world, int ticks) {
+        BotController bot = new NearestThreatBot(10);
+        InputFrame input = new InputFrame();
+        world.spawnChance = 0.3;
+        for (int t = 0; t < ticks && !world.gameOver; t++) {
+            bot.control(world, input);
+            world.step(input);
+        }
+        world.spawnChance = 0.02;
+    }
+}
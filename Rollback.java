@@ -0,0 +1,141 @@
+/**
+ * Rollback netcode-style prediction for a GameWorld, for play with no input
+ * delay when some input (the other player's) arrives late.
+ *
+ * advance() runs each tick at once on whatever input is known or guessed,
+ * after saving the world into a ring slot. When the real input for an
+ * earlier tick turns up and differs from the guess, correct() restores that
+ * tick's slot and re-simulates up to the present with the fixed input, at
+ * most 'window' ticks back. Slots, inputs and stats are all preallocated.
+ *
+ * Events are muted while re-simulating: sounds, damage numbers and stats
+ * already reacted to the predicted ticks, and playing them twice is worse
+ * than a missed correction.
+ */
+public class Rollback {
+    private final GameWorld world;
+    private final int window;
+    private final WorldState[] states; // state before tick f lives in slot f % slots
+    private final InputFrame[] inputs; // input tick f ran with
+    private final int slots;
+    private long frame = 0;            // next tick to run
+
+    // stats
+    private long rollbacks, confirmed, tooLate, resimulatedTicks;
+    private int lastDepth, maxDepth;
+    private long saveNanos, saves, restoreNanos, resimNanos, maxResimNanos, lastResimNanos;
+    private final long[] depthCounts;
+
+    public Rollback(GameWorld world, int window) {
+        if (window < 1) throw new IllegalArgumentException("window must be at least 1 tick");
+        this.world = world;
+        this.window = window;
+        slots = window + 1;
+        states = new WorldState[slots];
+        inputs = new InputFrame[slots];
+        for (int i = 0; i < slots; i++) {
+            states[i] = new WorldState();
+            inputs[i] = new InputFrame();
+        }
+        depthCounts = new long[window + 1];
+    }
+
+    // Tick number advance() will run next
+    public long frame() {
+        return frame;
+    }
+
+    public int window() {
+        return window;
+    }
+
+    // Run the next tick with 'input' (real or predicted)
+    public void advance(InputFrame input) {
+        int slot = (int) (frame % slots);
+        long t = System.nanoTime();
+        states[slot].capture(world);
+        saveNanos += System.nanoTime() - t;
+        saves++;
+        inputs[slot].set(input);
+        world.step(inputs[slot]);
+        frame++;
+    }
+
+    // The input tick 'f' should have had. Re-simulates if it differs from what ran; false if
+    // 'f' is further back than the window (the caller has to live with the divergence).
+    public boolean correct(long f, InputFrame actual) {
+        if (f >= frame) throw new IllegalArgumentException("tick " + f + " hasn't run yet");
+        if (frame - f > window) {
+            tooLate++;
+            return false;
+        }
+        int slot = (int) (f % slots);
+        if (inputs[slot].sameAs(actual)) {
+            confirmed++;
+            return true;
+        }
+        inputs[slot].set(actual);
+
+        long t = System.nanoTime();
+        states[slot].restore(world);
+        long restored = System.nanoTime();
+        restoreNanos += restored - t;
+
+        world.events.setMuted(true);
+        for (long g = f; g < frame; g++) {
+            int s = (int) (g % slots);
+            if (g > f) states[s].capture(world); // later slots held the mispredicted timeline
+            world.step(inputs[s]);
+        }
+        world.events.setMuted(false);
+
+        int depth = (int) (frame - f);
+        long nanos = System.nanoTime() - restored;
+        rollbacks++;
+        resimulatedTicks += depth;
+        depthCounts[depth]++;
+        lastDepth = depth;
+        maxDepth = Math.max(maxDepth, depth);
+        lastResimNanos = nanos;
+        resimNanos += nanos;
+        maxResimNanos = Math.max(maxResimNanos, nanos);
+        return true;
+    }
+
+    // Input tick 'f' ran with (valid for the last 'window' ticks), e.g. to predict the next one
+    public InputFrame input(long f) {
+        return inputs[(int) (f % slots)];
+    }
+
+    public long rollbacks() { return rollbacks; }
+    public int lastDepth() { return lastDepth; }
+    public int maxDepth() { return maxDepth; }
+    public double lastResimMillis() { return lastResimNanos / 1e6; }
+
+    public double meanSaveMicros() {
+        return saves == 0 ? 0 : saveNanos / 1e3 / saves;
+    }
+
+    public double meanRestoreMicros() {
+        return rollbacks == 0 ? 0 : restoreNanos / 1e3 / rollbacks;
+    }
+
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Rollback: %d ticks, %d rollbacks (%d predictions confirmed, %d too late), window %d%n",
+                frame, rollbacks, confirmed, tooLate, window));
+        sb.append(String.format("  depth: mean %.2f, max %d ticks; %d ticks re-simulated%n",
+                rollbacks == 0 ? 0 : resimulatedTicks / (double) rollbacks, maxDepth, resimulatedTicks));
+        sb.append(String.format("  save %.2f us, restore %.2f us, re-sim mean %.3f ms (%.1f us/tick), max %.3f ms%n",
+                meanSaveMicros(), meanRestoreMicros(),
+                rollbacks == 0 ? 0 : resimNanos / 1e6 / rollbacks,
+                resimulatedTicks == 0 ? 0 : resimNanos / 1e3 / resimulatedTicks, maxResimNanos / 1e6));
+        long max = 1;
+        for (long c : depthCounts) max = Math.max(max, c);
+        for (int d = 1; d <= window; d++) {
+            if (depthCounts[d] == 0) continue;
+            sb.append(String.format("  %3d ticks %8d %s%n", d, depthCounts[d], "#".repeat((int) (50 * depthCounts[d] / max))));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,91 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Rollback under a steady stream of late input: the bot's real input for
+ * each tick only becomes known 'delay' ticks later, and until then the
+ * previous known input is replayed as the guess. Checks that the world ends
+ * up exactly where a run with no lateness does, and reports save / restore
+ * / re-simulation cost plus how many bytes the loop allocated once every
+ * ring slot had been filled (snapshots size themselves on first use).
+ *
+ *   java RollbackBenchmark [ticks] [delay] [window] [spawnChance]
+ */
+public class RollbackBenchmark {
+
+    public static void main(String[] args) {
+        int ticks = args.length > 0 ? Integer.parseInt(args[0]) : 3000;
+        int delay = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int window = args.length > 2 ? Integer.parseInt(args[2]) : 8;
+        double spawnChance = args.length > 3 ? Double.parseDouble(args[3]) : 0.2;
+
+        // the real inputs, from a run where every input is on time
+        GameWorld reference = world(spawnChance);
+        InputFrame[] real = new InputFrame[ticks];
+        BotController bot = new NearestThreatBot(10);
+        for (int t = 0; t < ticks; t++) {
+            real[t] = new InputFrame();
+            bot.control(reference, real[t]);
+            reference.step(real[t]);
+        }
+        System.out.printf("%d ticks, input %d ticks late, window %d; reference ends with %d enemies, %d bullets, score %d%n",
+                ticks, delay, window, reference.enemyCount(), reference.bulletCount(), reference.score);
+
+        InputFrame guess = new InputFrame();
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            GameWorld world = world(spawnChance);
+            Rollback rollback = new Rollback(world, window);
+
+            long allocated = 0;
+            long start = System.nanoTime();
+            for (int t = 0; t < ticks; t++) {
+                if (t == 2 * window) allocated = allocatedBytes(); // every slot has been filled by now
+                int known = t - delay; // real input for this tick just arrived
+                if (known >= 0) rollback.correct(known, real[known]);
+                if (known >= 0) guess.set(real[known]); // predict: same as the newest real input
+                rollback.advance(guess);
+            }
+            for (int t = Math.max(0, ticks - delay); t < ticks; t++) rollback.correct(t, real[t]);
+            long nanos = System.nanoTime() - start;
+            allocated = allocatedBytes() - allocated;
+
+            System.out.printf("round %d: %.2f s, %s, %d bytes allocated after the first %d ticks%n", round, nanos / 1e9,
+                    matches(world, reference) ? "matches reference" : "DIVERGED", allocated, 2 * window);
+            if (round == 2) System.out.print(rollback.report());
+        }
+    }
+
+    static GameWorld world(double spawnChance) {
+        GameWorld world = new GameWorld(7);
+        world.setMap(TileMap.generate(64, 64, 1)); // room to roam, so the game doesn't end early
+        world.spawnChance = spawnChance;
+        world.contactDamage = 0;
+        world.reset(7);
+        return world;
+    }
+
+    static boolean matches(GameWorld a, GameWorld b) {
+        return a.ticks == b.ticks && a.score == b.score && a.gameOver == b.gameOver
+                && a.random.state() == b.random.state()
+                && a.enemyCount() == b.enemyCount() && a.bulletCount() == b.bulletCount()
+                && a.playerCenterX() == b.playerCenterX() && a.playerCenterY() == b.playerCenterY()
+                && checksum(a) == checksum(b);
+    }
+
+    static double checksum(GameWorld w) {
+        double sum = 0;
+        Query q = w.enemies;
+        for (int a = 0; a < q.count; a++) {
+            Archetype arch = q.archetypes[a];
+            for (int c = 0; c < arch.chunkCount; c++) {
+                Chunk ch = arch.chunks[c];
+                for (int i = 0; i < ch.count; i++) sum = sum * 31 + ch.x[i] * 7 + ch.y[i];
+            }
+        }
+        return sum;
+    }
+
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
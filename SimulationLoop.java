@@ -0,0 +1,242 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a GameWorld on its own thread at a fixed tick rate and publishes a
+ * RenderSnapshot after every tick, so rendering on the EDT overlaps with
+ * the next tick instead of waiting for it.
+ *
+ * The UI thread never touches the world. It posts input here: held keys and
+ * mouse position as volatile fields, clicks through a small single-producer
+ * ring, and restart / autoplay as flags. The sim thread picks them up at the
+ * start of its next tick. Mouse coordinates are screen (logical) pixels; the
+ * sim adds its own camera offset, so they stay right while the view scrolls.
+ *
+ * Ticks are paced by a FramePacer at TICK_RATE (60 Hz, matching the display,
+ * rather than the 62.5 Hz the old 16 ms timer gave).
+ *
+ * Driven (the low-latency mode) there is no sim thread: whoever presents
+ * frames calls step() right before each one, so input is sampled as late
+ * as it can be and the tick goes straight to the screen instead of
+ * waiting up to a tick here and a frame there.
+ *
+ * Key changes and clicks carry the nanoTime of their input event. The
+ * earliest one still waiting is taken by the next tick and stays in every
+ * snapshot after it (RenderSnapshot.inputNanos) until newer input lands,
+ * so the renderer can tell which frame first shows it.
+ */
+public class SimulationLoop {
+    static final double TICK_RATE = 60.0;
+
+    public static final int KEY_UP = 1, KEY_DOWN = 2, KEY_LEFT = 4, KEY_RIGHT = 8;
+
+    private final GameWorld world;
+    private final TripleBuffer<RenderSnapshot> snapshots =
+            new TripleBuffer<>(new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot());
+    private final Camera camera = new Camera(GameWorld.WIDTH, GameWorld.HEIGHT);
+    final GameStats stats = new GameStats();
+    final DamageNumbers damageNumbers = new DamageNumbers();
+
+    private BotController bot = new NearestThreatBot(10);
+    private final InputFrame input = new InputFrame();
+
+    // posted by the UI thread
+    private volatile int keys;
+    private volatile int mouseX, mouseY;
+    private volatile boolean autoplay;
+    private volatile long restartSeed;
+    private volatile boolean restartRequested;
+    private final AtomicLong pendingInput = new AtomicLong(); // earliest unconsumed input event, 0 = none
+    private long inputNanos;                                   // sim's: latest input batch consumed
+
+    private static final int CLICKS = 16;
+    private final int[] clickX = new int[CLICKS], clickY = new int[CLICKS];
+    private volatile int clickHead = 0; // written by the UI thread
+    private volatile int clickTail = 0; // written by the sim thread
+
+    private final FramePacer pacer;
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean driven, started;
+
+    public SimulationLoop(GameWorld world) {
+        this(world, TICK_RATE);
+    }
+
+    public SimulationLoop(GameWorld world, double tickRate) {
+        if (!(tickRate > 0)) throw new IllegalArgumentException("tick rate must be positive: " + tickRate);
+        this.world = world;
+        pacer = new FramePacer(tickRate);
+        world.events.subscribe(stats);
+        world.events.subscribe(damageNumbers);
+    }
+
+    // ---- UI thread ----
+
+    // eventNanos: when the input event happened (see LatencyHistogram.eventNanos); key repeats are ignored
+    public void setKey(int key, boolean down, long eventNanos) {
+        int k = keys, changed = down ? k | key : k & ~key;
+        if (changed == k) return;
+        keys = changed;
+        pendingInput.compareAndSet(0, eventNanos);
+    }
+
+    public void aim(int screenX, int screenY) {
+        mouseX = screenX;
+        mouseY = screenY;
+    }
+
+    // Dropped if the sim is more than CLICKS clicks behind
+    public void click(int screenX, int screenY, long eventNanos) {
+        int head = clickHead;
+        if (head - clickTail >= CLICKS) return;
+        clickX[head & (CLICKS - 1)] = screenX;
+        clickY[head & (CLICKS - 1)] = screenY;
+        clickHead = head + 1;
+        pendingInput.compareAndSet(0, eventNanos);
+    }
+
+    // What autoplay runs (the stress test scripts the game this way); set before start()
+    public void setBot(BotController bot) {
+        this.bot = bot;
+    }
+
+    public void setAutoplay(boolean on) {
+        autoplay = on;
+    }
+
+    public boolean isAutoplay() {
+        return autoplay;
+    }
+
+    public void restart(long seed) {
+        restartSeed = seed;
+        restartRequested = true;
+    }
+
+    // Latest complete tick; owned by the caller until its next call
+    public RenderSnapshot latest() {
+        return snapshots.latest();
+    }
+
+    // Reset the world and start ticking (unless driven); the first snapshot is ready on return
+    public void start(long seed) {
+        stop();
+        keys = 0; // anything held when the last game stopped was released elsewhere
+        pendingInput.set(0);
+        resetWorld(seed);
+        started = true;
+        if (!driven) startThread();
+    }
+
+    // Driven: no sim thread, step() ticks instead. Call from the thread that calls step(), between
+    // steps; switching back hands ticking to the sim thread again if the game is running.
+    public void setDriven(boolean on) {
+        if (on == driven) return;
+        driven = on;
+        if (on) stopThread();
+        else if (started) startThread();
+    }
+
+    public boolean isDriven() {
+        return driven;
+    }
+
+    // Driven mode: sample input and run one tick on the caller's thread, publishing its snapshot
+    public void step() {
+        runOnce();
+    }
+
+    private void startThread() {
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void stop() {
+        started = false;
+        stopThread();
+    }
+
+    private void stopThread() {
+        running = false;
+        if (thread != null) {
+            try {
+                thread.join(); // at most one tick; the world must be ours again before it's reused
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            thread = null;
+        }
+    }
+
+    // Tick pacing stats; read them once the loop is stopped, or accept slightly stale numbers
+    public FramePacer pacer() {
+        return pacer;
+    }
+
+    // ---- sim thread ----
+
+    private void run() {
+        pacer.reset();
+        while (running) {
+            runOnce();
+            pacer.awaitNext();
+        }
+    }
+
+    private void runOnce() {
+        if (restartRequested) {
+            restartRequested = false;
+            resetWorld(restartSeed);
+        }
+        if (!world.gameOver) tick();
+    }
+
+    private void tick() {
+        long start = System.nanoTime();
+        long event = pendingInput.getAndSet(0); // before the clicks and keys it covers are read
+        if (event != 0) inputNanos = event;
+
+        // clicks fire between ticks, the way they used to land between timer events
+        for (int tail = clickTail; tail != clickHead; tail++) {
+            world.fire(clickX[tail & (CLICKS - 1)] + camera.x, clickY[tail & (CLICKS - 1)] + camera.y);
+            clickTail = tail + 1;
+        }
+
+        if (autoplay) {
+            bot.control(world, input);
+        } else {
+            int k = keys;
+            input.up = (k & KEY_UP) != 0;
+            input.down = (k & KEY_DOWN) != 0;
+            input.left = (k & KEY_LEFT) != 0;
+            input.right = (k & KEY_RIGHT) != 0;
+            // the mouse stays put on screen while the camera moves, so re-aim every tick
+            input.aimX = mouseX + camera.x;
+            input.aimY = mouseY + camera.y;
+            input.fire = false;
+        }
+        world.step(input);
+        damageNumbers.update();
+        camera.follow(world.playerCenterX(), world.playerCenterY(), world.arenaWidth, world.arenaHeight);
+        publish(System.nanoTime() - start);
+    }
+
+    private void resetWorld(long seed) {
+        world.reset(seed);
+        stats.reset();
+        damageNumbers.clear();
+        clickTail = clickHead;
+        camera.follow(world.playerCenterX(), world.playerCenterY(), world.arenaWidth, world.arenaHeight);
+        publish(0);
+    }
+
+    private void publish(long tickNanos) {
+        RenderSnapshot s = snapshots.back();
+        s.capture(world, camera, stats, damageNumbers);
+        s.tickNanos = tickNanos;
+        s.inputNanos = inputNanos;
+        snapshots.publish();
+    }
+}
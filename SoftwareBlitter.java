@@ -0,0 +1,80 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+/**
+ * Draws Sprites by writing straight into the int[] behind a
+ * TYPE_INT_ARGB_PRE image, with no Java2D call per sprite.
+ *
+ * Each row is clipped, then split into spans: fully opaque runs are copied
+ * with System.arraycopy, the antialiased edges around them are blended
+ * (premultiplied source-over) one pixel at a time.
+ *
+ * Touching the raster like this stops Java2D from caching the image in
+ * video memory, so the target should be a buffer that is redrawn every
+ * frame anyway.
+ */
+public class SoftwareBlitter {
+    private int[] dst;
+    private int dstWidth, dstHeight;
+    private int clipX0, clipY0, clipX1, clipY1; // [x0, x1) x [y0, y1)
+
+    public void setTarget(BufferedImage target) {
+        if (target.getType() != BufferedImage.TYPE_INT_ARGB_PRE) {
+            throw new IllegalArgumentException("target must be TYPE_INT_ARGB_PRE");
+        }
+        dst = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        dstWidth = target.getWidth();
+        dstHeight = target.getHeight();
+        setClip(0, 0, dstWidth, dstHeight);
+    }
+
+    public void setClip(int x, int y, int w, int h) {
+        clipX0 = Math.max(0, x);
+        clipY0 = Math.max(0, y);
+        clipX1 = Math.min(dstWidth, x + w);
+        clipY1 = Math.min(dstHeight, y + h);
+    }
+
+    // Draw s with its origin at (x, y)
+    public void blit(Sprite s, int x, int y) {
+        int left = x - s.originX, top = y - s.originY;
+        int y0 = Math.max(clipY0, top), y1 = Math.min(clipY1, top + s.height);
+        if (y0 >= y1 || left >= clipX1 || left + s.width <= clipX0) return;
+
+        int[] src = s.pixels, out = dst;
+        for (int dy = y0; dy < y1; dy++) {
+            int sy = dy - top;
+            int srcRow = sy * s.width, dstRow = dy * dstWidth + left;
+
+            // row spans in sprite coordinates, clipped to the clip rect
+            int from = Math.max(s.rowStart[sy], clipX0 - left);
+            int to = Math.min(s.rowEnd[sy], clipX1 - left);
+            if (from >= to) continue;
+            int solidFrom = Math.min(Math.max(s.solidStart[sy], from), to);
+            int solidTo = Math.max(Math.min(s.solidEnd[sy], to), solidFrom);
+
+            blend(src, srcRow + from, out, dstRow + from, solidFrom - from);
+            if (solidTo > solidFrom) {
+                System.arraycopy(src, srcRow + solidFrom, out, dstRow + solidFrom, solidTo - solidFrom);
+            }
+            blend(src, srcRow + solidTo, out, dstRow + solidTo, to - solidTo);
+        }
+    }
+
+    // Premultiplied source-over for n pixels
+    private static void blend(int[] src, int si, int[] dst, int di, int n) {
+        for (int end = si + n; si < end; si++, di++) {
+            int s = src[si];
+            int a = s >>> 24;
+            if (a == 0) continue;
+            if (a == 255) {
+                dst[di] = s;
+                continue;
+            }
+            int d = dst[di], inv = 256 - a;
+            int rb = ((d & 0x00FF00FF) * inv >>> 8) & 0x00FF00FF;
+            int ag = (((d >>> 8) & 0x00FF00FF) * inv) & 0xFF00FF00;
+            dst[di] = s + (rb | ag);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+import java.io.File;
+import java.io.IOException;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Sound effects: decoded once into PCM at startup, played through one
+ * process-wide AudioMixer. Each effect loads from a .wav next to the game
+ * if present, otherwise a simple synthesized stand-in is generated.
+ */
+public class SoundManager {
+    public static final int SHOT = 0;
+    public static final int EXPLOSION = 1;
+    public static final int HIT = 2;
+    public static final int GAME_OVER = 3;
+
+    static final String[] FILES = {"shot.wav", "explosion.wav", "hit.wav", "gameover.wav"};
+    static final int VOICES = 16;
+    static final int BUFFER_FRAMES = 512; // ~12 ms
+
+    public static AudioMixer mixer;
+
+    // Call once at game start
+    public static void loadSounds() {
+        short[][] effects = new short[FILES.length][];
+        for (int i = 0; i < FILES.length; i++) {
+            effects[i] = loadWav(FILES[i]);
+            if (effects[i] == null) effects[i] = synthesize(i);
+        }
+        mixer = new AudioMixer(effects, VOICES);
+        mixer.start(BUFFER_FRAMES);
+    }
+
+    public static void play(int effect, int priority, double gain, double pan) {
+        if (mixer != null) mixer.play(effect, priority, gain, pan);
+    }
+
+    // Decode a wav into mono 16-bit PCM at the mixer rate, or null if that isn't possible
+    static short[] loadWav(String name) {
+        File file = new File(name);
+        if (!file.exists()) return null;
+        AudioFormat target = new AudioFormat(AudioMixer.SAMPLE_RATE, 16, 1, true, false);
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(target, AudioSystem.getAudioInputStream(file))) {
+            byte[] bytes = in.readAllBytes();
+            short[] pcm = new short[bytes.length / 2];
+            for (int i = 0; i < pcm.length; i++) {
+                pcm[i] = (short) ((bytes[2 * i] & 0xFF) | (bytes[2 * i + 1] << 8));
+            }
+            return pcm;
+        } catch (IOException | UnsupportedAudioFileException | IllegalArgumentException e) {
+            System.err.println("Could not load '" + name + "', using a generated sound: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Cheap procedural stand-ins so the game has sound without asset files
+    static short[] synthesize(int effect) {
+        float rate = AudioMixer.SAMPLE_RATE;
+        GameRandom noise = new GameRandom(effect);
+        double seconds = effect == SHOT ? 0.08 : effect == EXPLOSION ? 0.4 : effect == HIT ? 0.15 : 0.8;
+        short[] pcm = new short[(int) (rate * seconds)];
+        double phase = 0, lowpass = 0;
+        for (int i = 0; i < pcm.length; i++) {
+            double t = i / (double) pcm.length; // 0..1 through the sound
+            double s;
+            switch (effect) {
+                case SHOT: // falling square chirp
+                    phase += (900 - 600 * t) / rate;
+                    s = ((phase % 1) < 0.5 ? 0.5 : -0.5) * (1 - t);
+                    break;
+                case EXPLOSION: // low-passed noise burst
+                    lowpass += 0.15 * (noise.nextDouble() * 2 - 1 - lowpass);
+                    s = 2.5 * lowpass * Math.exp(-5 * t);
+                    break;
+                case HIT: // thump with a bit of grit
+                    phase += 120 / rate;
+                    s = (0.8 * Math.sin(2 * Math.PI * phase) + 0.2 * (noise.nextDouble() * 2 - 1)) * (1 - t);
+                    break;
+                default: // game over: slow falling tone
+                    phase += (440 - 330 * t) / rate;
+                    s = 0.6 * Math.sin(2 * Math.PI * phase) * (1 - t);
+                    break;
+            }
+            pcm[i] = (short) (Math.max(-1, Math.min(1, s)) * 20000);
+        }
+        return pcm;
+    }
+}
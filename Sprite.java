@@ -0,0 +1,84 @@
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.function.Consumer;
+
+/**
+ * A premultiplied ARGB image ready for SoftwareBlitter, plus per-row spans
+ * worked out once up front: where each row has any coverage at all, and the
+ * run of fully opaque pixels in the middle that can be copied without
+ * blending. (originX, originY) is the pixel that lands on the draw position.
+ */
+public class Sprite {
+    final BufferedImage image; // TYPE_INT_ARGB_PRE, also usable with Graphics2D.drawImage
+    final int[] pixels;
+    final int width, height;
+    final int originX, originY;
+
+    // per row: [rowStart, rowEnd) has coverage, [solidStart, solidEnd) is alpha 255
+    final int[] rowStart, rowEnd, solidStart, solidEnd;
+
+    public Sprite(BufferedImage source, int originX, int originY) {
+        width = source.getWidth();
+        height = source.getHeight();
+        this.originX = originX;
+        this.originY = originY;
+        if (source.getType() == BufferedImage.TYPE_INT_ARGB_PRE) {
+            image = source;
+        } else {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+            Graphics2D g = image.createGraphics();
+            g.drawImage(source, 0, 0, null);
+            g.dispose();
+        }
+        pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+
+        rowStart = new int[height];
+        rowEnd = new int[height];
+        solidStart = new int[height];
+        solidEnd = new int[height];
+        for (int y = 0; y < height; y++) {
+            int row = y * width;
+            int start = 0, end = width;
+            while (start < end && pixels[row + start] >>> 24 == 0) start++;
+            while (end > start && pixels[row + end - 1] >>> 24 == 0) end--;
+            rowStart[y] = start;
+            rowEnd[y] = end;
+
+            // longest run of opaque pixels; everything else in the row gets blended
+            int bestStart = start, bestEnd = start;
+            for (int x = start; x < end; ) {
+                if (pixels[row + x] >>> 24 != 255) {
+                    x++;
+                    continue;
+                }
+                int runStart = x;
+                while (x < end && pixels[row + x] >>> 24 == 255) x++;
+                if (x - runStart > bestEnd - bestStart) {
+                    bestStart = runStart;
+                    bestEnd = x;
+                }
+            }
+            solidStart[y] = bestStart;
+            solidEnd[y] = bestEnd;
+        }
+    }
+
+    // Antialiased sprite drawn by 'painter' with (0, 0) at the sprite's origin
+    public static Sprite render(int width, int height, int originX, int originY, Consumer<Graphics2D> painter) {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = img.createGraphics();
+        g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g.translate(originX, originY);
+        painter.accept(g);
+        g.dispose();
+        return new Sprite(img, originX, originY);
+    }
+
+    // Index of the pre-rotated frame closest to 'angle', for a full turn split into 'frames'
+    public static int frame(double angle, int frames) {
+        int f = (int) Math.round(angle * frames / (2 * Math.PI)) % frames;
+        return f < 0 ? f + frames : f;
+    }
+}
@@ -0,0 +1,77 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.geom.Ellipse2D;
+import java.awt.image.BufferedImage;
+
+/**
+ * Cost per sprite of the Graphics2D paths against SoftwareBlitter, drawing
+ * into an 800x600 TYPE_INT_ARGB_PRE image.
+ *
+ *   1. a 12x12 bullet sprite: Graphics2D.drawImage vs blitter.blit
+ *   2. RenderSystem over a crowded world: every layer Graphics2D vs software
+ *
+ *   java SpriteBlitBenchmark [sprites] [frames]
+ */
+public class SpriteBlitBenchmark {
+
+    public static void main(String[] args) {
+        int sprites = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 100;
+
+        BufferedImage target = new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        Sprite bullet = Sprite.render(12, 12, 6, 6, g -> {
+            g.setColor(Color.YELLOW);
+            g.fill(new Ellipse2D.Double(-5, -5, 10, 10));
+        });
+        GameRandom r = new GameRandom(42);
+        int[] xs = new int[sprites], ys = new int[sprites];
+        for (int i = 0; i < sprites; i++) {
+            xs[i] = r.nextInt(GameWorld.WIDTH + 20) - 10; // a few off the edges, to exercise clipping
+            ys[i] = r.nextInt(GameWorld.HEIGHT + 20) - 10;
+        }
+
+        GameWorld world = new GameWorld(42);
+        for (int i = 0; i < sprites; i++) {
+            if (i % 4 == 0) world.spawnEnemy(r.nextInt(GameWorld.WIDTH), r.nextInt(GameWorld.HEIGHT));
+            else world.spawnBullet(r.nextInt(GameWorld.WIDTH), r.nextInt(GameWorld.HEIGHT), r.nextDouble() * 6.28);
+        }
+        RenderSystem renderer = new RenderSystem();
+        renderer.setTarget(target, 1.0);
+
+        System.out.printf("%d sprites, %d frames%n", sprites, frames);
+        for (int round = 0; round < 3; round++) { // first rounds double as JIT warm-up
+            double drawImage = time(frames, sprites, () -> {
+                Graphics2D g = target.createGraphics();
+                for (int i = 0; i < sprites; i++) g.drawImage(bullet.image, xs[i] - 6, ys[i] - 6, null);
+                g.dispose();
+            });
+            SoftwareBlitter blitter = new SoftwareBlitter();
+            blitter.setTarget(target);
+            double blit = time(frames, sprites, () -> {
+                for (int i = 0; i < sprites; i++) blitter.blit(bullet, xs[i], ys[i]);
+            });
+
+            double shapes = time(frames, sprites, () -> drawWorld(renderer, target, world, false));
+            double software = time(frames, sprites, () -> drawWorld(renderer, target, world, true));
+
+            System.out.printf("round %d: 12x12 drawImage %.0f ns, blit %.0f ns (%.1fx) | world g2d %.0f ns, software %.0f ns (%.1fx)%n",
+                    round, drawImage, blit, drawImage / blit, shapes, software, shapes / software);
+        }
+    }
+
+    static void drawWorld(RenderSystem renderer, BufferedImage target, GameWorld world, boolean software) {
+        for (int layer = RenderSystem.LAYER_PLAYER; layer <= RenderSystem.LAYER_ENEMIES; layer++) {
+            renderer.setSoftware(layer, software);
+        }
+        Graphics2D g = target.createGraphics();
+        renderer.draw(g, world);
+        g.dispose();
+    }
+
+    // ns per sprite
+    static double time(int frames, int sprites, Runnable frame) {
+        long start = System.nanoTime();
+        for (int f = 0; f < frames; f++) frame.run();
+        return (System.nanoTime() - start) / (double) frames / sprites;
+    }
+}
@@ -0,0 +1,75 @@
+import java.util.Arrays;
+
+/**
+ * Measures how long a fresh game takes to reach its steady frame time.
+ *
+ * Records the cost of the first FRAMES frames after start(). The steady
+ * frame time is the median of the second half of that run; the game is
+ * "steady" from the first frame after which no WINDOW-frame average rises
+ * above TOLERANCE times that. Reported once, when the run is full.
+ */
+public class SteadyStateMeter {
+    static final int FRAMES = 600;        // ~10 s at 60 fps
+    static final int WINDOW = 30;
+    static final double TOLERANCE = 1.25;
+
+    private final long[] cost = new long[FRAMES];
+    private final long[] at = new long[FRAMES]; // frame end, relative to start()
+    private int count = FRAMES;                 // idle until start()
+    private long startNanos;
+
+    private boolean reported = false;
+    private long steadyNanos, timeToSteadyNanos, worstNanos;
+
+    public void start(long nowNanos) {
+        startNanos = nowNanos;
+        count = 0;
+        reported = false;
+    }
+
+    // Returns true on the frame the measurement completes
+    public boolean record(long frameNanos, long nowNanos) {
+        if (count >= FRAMES) return false;
+        cost[count] = frameNanos;
+        at[count] = nowNanos - startNanos;
+        if (++count < FRAMES) return false;
+        compute();
+        reported = true;
+        return true;
+    }
+
+    private void compute() {
+        long[] tail = Arrays.copyOfRange(cost, FRAMES / 2, FRAMES);
+        Arrays.sort(tail);
+        steadyNanos = tail[tail.length / 2];
+
+        long limit = (long) (steadyNanos * TOLERANCE) * WINDOW;
+        long sum = 0;
+        int lastBad = -1; // last frame ending a window over the limit
+        worstNanos = 0;
+        for (int i = 0; i < FRAMES; i++) {
+            worstNanos = Math.max(worstNanos, cost[i]);
+            sum += cost[i];
+            if (i >= WINDOW) sum -= cost[i - WINDOW];
+            if (i >= WINDOW - 1 && sum > limit) lastBad = i;
+        }
+        timeToSteadyNanos = lastBad < 0 ? 0 : at[lastBad];
+    }
+
+    public boolean isReported() {
+        return reported;
+    }
+
+    public double timeToSteadyMillis() {
+        return timeToSteadyNanos / 1e6;
+    }
+
+    public double steadyFrameMillis() {
+        return steadyNanos / 1e6;
+    }
+
+    public String summary() {
+        return String.format("Steady state after %.0f ms (steady frame %.2f ms, worst %.2f ms)",
+                timeToSteadyNanos / 1e6, steadyNanos / 1e6, worstNanos / 1e6);
+    }
+}
@@ -0,0 +1,259 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * The stress-test scene (Options in the start menu): holds the world at
+ * ENTITIES[stage] entities, a tenth of them bullets, for STAGE_SECONDS per
+ * stage, from 1k up to 100k. Used as the sim's autoplay controller it tops
+ * up whatever got killed or left the awake area, then plays a fixed script:
+ * the player walks a square, sweeps its aim and fires on a cadence. The
+ * world is set up so the game can't be lost; it ends after the last stage.
+ *
+ * The first second of each stage (spawning, JIT, GC after the jump) isn't
+ * counted. Per stage: frames per second, sim tick and paint times, peak
+ * heap. Each stage scores its entity count times how close it came to
+ * 60 fps and to the tick budget, whichever is worse, and the score is the
+ * sum over stages / 100, so a machine that holds 60 Hz all the way scores
+ * 1880. finish() writes it all to RESULTS.
+ *
+ * Frame-side calls (recordTick, recordFrame, finish) come from one thread
+ * (the EDT in game); control() from the sim thread.
+ *
+ *   java StressTest [stageSeconds]     sim only, no rendering
+ */
+public class StressTest implements BotController {
+    static final int[] ENTITIES = {1_000, 2_000, 5_000, 10_000, 20_000, 50_000, 100_000};
+    static final double STAGE_SECONDS = 6;
+    static final double WARM_UP_SECONDS = 1;
+    static final double TARGET_FPS = 60;
+    static final String RESULTS = "stress-results.txt";
+
+    private final long stageNanos, warmUpNanos;
+    private final GameRandom random = new GameRandom(1234);
+
+    // sim thread
+    private long stageStart = -1;
+    private int tick;
+    private volatile int stage;
+    private volatile boolean measuring, done;
+
+    // frame side, per stage
+    private final long[] frames = new long[ENTITIES.length], renderNanos = new long[ENTITIES.length];
+    private final long[] ticks = new long[ENTITIES.length], tickNanos = new long[ENTITIES.length];
+    private final long[] maxTickNanos = new long[ENTITIES.length], peakHeap = new long[ENTITIES.length];
+    private final long[] measuredNanos = new long[ENTITIES.length];
+    private long measureStart = -1;
+    private int measureStage = -1;
+    private final Runtime runtime = Runtime.getRuntime();
+    private long lastFrameNanos, heapUsed;
+
+    private String summary;
+
+    public StressTest() {
+        this(STAGE_SECONDS);
+    }
+
+    public StressTest(double stageSeconds) {
+        stageNanos = (long) (stageSeconds * 1e9);
+        warmUpNanos = (long) (Math.min(WARM_UP_SECONDS, stageSeconds / 2) * 1e9);
+    }
+
+    // A world that can't end on its own and only gets enemies from us
+    public static void setUp(GameWorld world) {
+        world.spawnChance = 0;
+        world.contactDamage = 0;
+        world.endless = true;
+    }
+
+    // ---- sim thread ----
+
+    @Override
+    public void control(GameWorld world, InputFrame input) {
+        long now = System.nanoTime();
+        if (stageStart < 0) stageStart = now;
+        if (now - stageStart >= stageNanos) {
+            measuring = false;
+            if (stage + 1 == ENTITIES.length) {
+                done = true;
+                world.gameOver = true; // stops the sim; the frame side calls finish()
+                return;
+            }
+            stage++;
+            stageStart = now;
+        }
+        measuring = now - stageStart >= warmUpNanos;
+
+        int total = ENTITIES[stage], bullets = total / 10;
+        populate(world, total - bullets, bullets);
+        script(world, input);
+        tick++;
+    }
+
+    public boolean isDone() {
+        return done;
+    }
+
+    public int stage() {
+        return stage;
+    }
+
+    public double stageSecondsLeft() {
+        return stageStart < 0 ? stageNanos / 1e9 : Math.max(0, stageNanos - (System.nanoTime() - stageStart)) / 1e9;
+    }
+
+    // Spawns near the player, so everything is awake and on or around the screen
+    private void populate(GameWorld world, int enemies, int bullets) {
+        double px = world.playerCenterX(), py = world.playerCenterY();
+        double x0 = Math.max(0, px - GameWorld.WIDTH), x1 = Math.min(world.arenaWidth, px + GameWorld.WIDTH);
+        double y0 = Math.max(0, py - GameWorld.HEIGHT), y1 = Math.min(world.arenaHeight, py + GameWorld.HEIGHT);
+        for (int n = world.enemyCount(); n < enemies; n++) {
+            world.spawnEnemy(x0 + random.nextDouble() * (x1 - x0 - GameWorld.ENEMY_SIZE),
+                    y0 + random.nextDouble() * (y1 - y0 - GameWorld.ENEMY_SIZE));
+        }
+        for (int n = world.bulletCount(); n < bullets; n++) {
+            world.spawnBullet(x0 + random.nextDouble() * (x1 - x0), y0 + random.nextDouble() * (y1 - y0),
+                    random.nextDouble() * 2 * Math.PI);
+        }
+    }
+
+    // Walk a square (two seconds a side), sweep the aim, fire every 6 ticks
+    private void script(GameWorld world, InputFrame input) {
+        int side = tick / 120 % 4;
+        input.up = side == 0;
+        input.right = side == 1;
+        input.down = side == 2;
+        input.left = side == 3;
+        double aim = tick * Math.toRadians(3);
+        input.aimX = (int) (world.playerCenterX() + Math.cos(aim) * 200);
+        input.aimY = (int) (world.playerCenterY() + Math.sin(aim) * 200);
+        input.fire = tick % 6 == 0;
+        input.fireX = input.aimX;
+        input.fireY = input.aimY;
+    }
+
+    // ---- frame side ----
+
+    // One sim tick's duration, once per tick seen
+    public void recordTick(long nanos) {
+        if (!measuring) return;
+        int s = stage;
+        ticks[s]++;
+        tickNanos[s] += nanos;
+        maxTickNanos[s] = Math.max(maxTickNanos[s], nanos);
+    }
+
+    // One paint's duration; pass 0 without rendering to only track time and heap
+    public void recordFrame(long nanos) {
+        long now = System.nanoTime();
+        heapUsed = runtime.totalMemory() - runtime.freeMemory();
+        if (!measuring) {
+            measureStart = -1;
+            return;
+        }
+        int s = stage;
+        if (measureStart < 0 || measureStage != s) {
+            measureStart = now;
+            measureStage = s;
+        } else {
+            measuredNanos[s] += now - lastFrameNanos;
+            if (nanos > 0) frames[s]++;
+            renderNanos[s] += nanos;
+        }
+        lastFrameNanos = now;
+        peakHeap[s] = Math.max(peakHeap[s], heapUsed);
+    }
+
+    public long heapUsed() {
+        return heapUsed;
+    }
+
+    public double fps(int s) {
+        return measuredNanos[s] == 0 ? 0 : frames[s] * 1e9 / measuredNanos[s];
+    }
+
+    public double tickMillis(int s) {
+        return ticks[s] == 0 ? 0 : tickNanos[s] / 1e6 / ticks[s];
+    }
+
+    public double renderMillis(int s) {
+        return frames[s] == 0 ? 0 : renderNanos[s] / 1e6 / frames[s];
+    }
+
+    // 0..1: how close the stage came to TARGET_FPS and to the tick budget
+    double efficiency(int s, boolean rendered) {
+        double budget = 1000 / SimulationLoop.TICK_RATE;
+        double tick = tickMillis(s) <= budget ? 1 : budget / tickMillis(s);
+        return rendered ? Math.min(tick, Math.min(1, fps(s) / TARGET_FPS)) : tick;
+    }
+
+    public int score(boolean rendered) {
+        double sum = 0;
+        for (int s = 0; s < ENTITIES.length; s++) sum += ENTITIES[s] * efficiency(s, rendered);
+        return (int) Math.round(sum / 100);
+    }
+
+    // Most entities held at (nearly) full speed
+    public int sustained(boolean rendered) {
+        int best = 0;
+        for (int s = 0; s < ENTITIES.length; s++) {
+            if (efficiency(s, rendered) >= 0.95) best = ENTITIES[s];
+        }
+        return best;
+    }
+
+    // Scores the run and writes RESULTS; returns the one-line summary
+    public String finish(boolean rendered) {
+        if (summary != null) return summary;
+        StringBuilder sb = new StringBuilder();
+        summary = String.format("Stress score %d, %d entities sustained%s", score(rendered), sustained(rendered),
+                rendered ? "" : " (sim only)");
+        sb.append(summary).append(System.lineSeparator());
+        sb.append(String.format("%s, %s %s, %d cores, Java %s, max heap %d MB%n",
+                LocalDateTime.now().withNano(0).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME), System.getProperty("os.name"),
+                System.getProperty("os.arch"), runtime.availableProcessors(), System.getProperty("java.version"),
+                runtime.maxMemory() >> 20));
+        sb.append(String.format("%9s %7s %9s %9s %9s %9s %9s%n",
+                "entities", "fps", "tick ms", "max ms", "paint ms", "heap MB", "score"));
+        for (int s = 0; s < ENTITIES.length; s++) {
+            sb.append(String.format("%9d %7s %9.2f %9.2f %9s %9d %9.0f%n", ENTITIES[s],
+                    rendered ? String.format("%.1f", fps(s)) : "-", tickMillis(s), maxTickNanos[s] / 1e6,
+                    rendered ? String.format("%.2f", renderMillis(s)) : "-", peakHeap[s] >> 20,
+                    ENTITIES[s] * efficiency(s, rendered) / 100));
+        }
+
+        Path file = Paths.get(RESULTS);
+        try {
+            Files.write(file, sb.toString().getBytes());
+            System.out.print(sb);
+            System.out.println("Written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.out.print(sb);
+            System.err.println("Could not write '" + RESULTS + "': " + e.getMessage());
+        }
+        return summary;
+    }
+
+    // Same ramp with no window: ticks back to back, so only the sim is measured
+    public static void main(String[] args) {
+        double stageSeconds = args.length > 0 ? Double.parseDouble(args[0]) : STAGE_SECONDS;
+        GameWorld world = new GameWorld(7);
+        world.setMap(TileMap.generate(128, 128, 1));
+        setUp(world);
+        world.reset(7);
+        StressTest test = new StressTest(stageSeconds);
+        InputFrame input = new InputFrame();
+        while (!test.isDone()) {
+            long start = System.nanoTime();
+            test.control(world, input);
+            if (test.isDone()) break;
+            world.step(input);
+            test.recordTick(System.nanoTime() - start);
+            test.recordFrame(0);
+        }
+        test.finish(false);
+    }
+}
@@ -0,0 +1,122 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A large tile map split into square chunks of CHUNK x CHUNK tiles.
+ *
+ * Map files are memory-mapped, not read: the OS pages in only the parts we
+ * touch, so a huge map costs nothing until you walk into it. Tiles are
+ * stored chunk by chunk (each chunk one contiguous block), so looking at
+ * one region of the map touches a few pages, not a stripe through the file.
+ *
+ * The map also decides which chunks are awake. Only chunks within
+ * SLEEP_RADIUS of the player's chunk get simulated; see awakeMinX() etc.
+ *
+ * File layout (little-endian): int MAGIC, int widthTiles, int heightTiles,
+ * then one byte per tile, chunks in row-major order, rows within a chunk.
+ */
+public class TileMap {
+    public static final int TILE = 32;                    // pixels
+    public static final int CHUNK = 16;                   // tiles per chunk side
+    public static final int CHUNK_PIXELS = TILE * CHUNK;
+    static final int SLEEP_RADIUS = 2;                    // chunks around the player that stay awake
+    static final int MAGIC = 0x314D4454;                  // "TDM1"
+    static final int HEADER = 12;
+
+    // tile values: all walkable, they only differ in looks
+    public static final byte FLOOR = 0, FLOOR_WORN = 1, PLATE = 2, LIGHT = 3;
+
+    private final int width, height;       // in tiles
+    private final int chunksX, chunksY;
+    private final ByteBuffer data;         // header + tiles, mapped or on-heap
+
+    private int awakeMinCX, awakeMinCY, awakeMaxCX, awakeMaxCY; // inclusive, may lie outside the map
+
+    private TileMap(ByteBuffer data) {
+        this.data = data.order(ByteOrder.LITTLE_ENDIAN);
+        if (data.getInt(0) != MAGIC) throw new IllegalArgumentException("not a map file");
+        width = data.getInt(4);
+        height = data.getInt(8);
+        chunksX = (width + CHUNK - 1) / CHUNK;
+        chunksY = (height + CHUNK - 1) / CHUNK;
+        if (data.capacity() < HEADER + (long) chunksX * chunksY * CHUNK * CHUNK) {
+            throw new IllegalArgumentException("map file is truncated");
+        }
+    }
+
+    public static TileMap load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new TileMap(mapped); // the mapping outlives the channel
+        }
+    }
+
+    // Procedural map held on the heap, for when there is no map file
+    public static TileMap generate(int widthTiles, int heightTiles, long seed) {
+        int chunksX = (widthTiles + CHUNK - 1) / CHUNK, chunksY = (heightTiles + CHUNK - 1) / CHUNK;
+        ByteBuffer buf = ByteBuffer.allocate(HEADER + chunksX * chunksY * CHUNK * CHUNK).order(ByteOrder.LITTLE_ENDIAN);
+        buf.putInt(0, MAGIC).putInt(4, widthTiles).putInt(8, heightTiles);
+        GameRandom random = new GameRandom(seed);
+        for (int ty = 0; ty < heightTiles; ty++) {
+            for (int tx = 0; tx < widthTiles; tx++) {
+                byte t = FLOOR;
+                if (tx % 8 == 0 || ty % 8 == 0) t = PLATE;          // panel seams
+                else if (random.nextInt(100) < 25) t = FLOOR_WORN;
+                if (tx % 8 == 4 && ty % 8 == 4) t = LIGHT;
+                buf.put(offset(tx, ty, chunksX), t);
+            }
+        }
+        return new TileMap(buf);
+    }
+
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer all = data.duplicate();
+            all.clear();
+            while (all.hasRemaining()) channel.write(all);
+        }
+    }
+
+    private static int offset(int tx, int ty, int chunksX) {
+        int chunk = (ty / CHUNK) * chunksX + tx / CHUNK;
+        return HEADER + chunk * CHUNK * CHUNK + (ty % CHUNK) * CHUNK + tx % CHUNK;
+    }
+
+    public byte tile(int tx, int ty) {
+        return data.get(offset(tx, ty, chunksX));
+    }
+
+    // Recompute the awake chunks around a point (the player), once per tick
+    public void wake(double x, double y) {
+        int cx = (int) Math.floor(x / CHUNK_PIXELS), cy = (int) Math.floor(y / CHUNK_PIXELS);
+        awakeMinCX = cx - SLEEP_RADIUS;
+        awakeMinCY = cy - SLEEP_RADIUS;
+        awakeMaxCX = cx + SLEEP_RADIUS;
+        awakeMaxCY = cy + SLEEP_RADIUS;
+    }
+
+    // Awake region in pixels; things outside it sleep
+    public double awakeMinX() { return awakeMinCX * (double) CHUNK_PIXELS; }
+    public double awakeMinY() { return awakeMinCY * (double) CHUNK_PIXELS; }
+    public double awakeMaxX() { return (awakeMaxCX + 1) * (double) CHUNK_PIXELS; }
+    public double awakeMaxY() { return (awakeMaxCY + 1) * (double) CHUNK_PIXELS; }
+
+    public int awakeChunks() {
+        int w = Math.min(awakeMaxCX, chunksX - 1) - Math.max(awakeMinCX, 0) + 1;
+        int h = Math.min(awakeMaxCY, chunksY - 1) - Math.max(awakeMinCY, 0) + 1;
+        return Math.max(0, w) * Math.max(0, h);
+    }
+
+    public int widthTiles() { return width; }
+    public int heightTiles() { return height; }
+    public int chunksX() { return chunksX; }
+    public int chunksY() { return chunksY; }
+    public int pixelWidth() { return width * TILE; }
+    public int pixelHeight() { return height * TILE; }
+}
@@ -0,0 +1,94 @@
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the part of a TileMap under the camera. Each chunk is rendered
+ * once into its own image and then drawn with one blit per frame; at most
+ * MAX_CACHED chunk images are kept, dropping the least recently drawn.
+ */
+public class TileRenderer {
+    static final int MAX_CACHED = 16;
+    static final Color[] PALETTE = {
+        new Color(22, 26, 34),   // FLOOR
+        new Color(28, 32, 42),   // FLOOR_WORN
+        new Color(40, 46, 58),   // PLATE
+        new Color(70, 90, 120)   // LIGHT
+    };
+
+    private TileMap map;
+    private BufferedImage[] images = new BufferedImage[0];
+    private long[] lastUsed = new long[0];
+    private int cached = 0;
+    private long frame = 0;
+
+    // Returns how many chunks were drawn; g must already be in world coordinates
+    public int draw(Graphics2D g, TileMap map, Camera camera, GraphicsConfiguration gc) {
+        if (map != this.map) {
+            this.map = map;
+            images = new BufferedImage[map.chunksX() * map.chunksY()];
+            lastUsed = new long[images.length];
+            cached = 0;
+        }
+        frame++;
+
+        int minCX = Math.max(0, camera.x / TileMap.CHUNK_PIXELS);
+        int minCY = Math.max(0, camera.y / TileMap.CHUNK_PIXELS);
+        int maxCX = Math.min(map.chunksX() - 1, (camera.x + camera.width) / TileMap.CHUNK_PIXELS);
+        int maxCY = Math.min(map.chunksY() - 1, (camera.y + camera.height) / TileMap.CHUNK_PIXELS);
+        int drawn = 0;
+        for (int cy = minCY; cy <= maxCY; cy++) {
+            for (int cx = minCX; cx <= maxCX; cx++) {
+                int i = cy * map.chunksX() + cx;
+                if (images[i] == null) images[i] = renderChunk(cx, cy, gc);
+                lastUsed[i] = frame;
+                g.drawImage(images[i], cx * TileMap.CHUNK_PIXELS, cy * TileMap.CHUNK_PIXELS, null);
+                drawn++;
+            }
+        }
+        return drawn;
+    }
+
+    public int cachedChunks() {
+        return cached;
+    }
+
+    // Cached chunk images Java2D holds an accelerated copy of
+    public int acceleratedChunks(GraphicsConfiguration gc) {
+        int n = 0;
+        for (BufferedImage img : images) {
+            if (img != null && img.getCapabilities(gc).isAccelerated()) n++;
+        }
+        return n;
+    }
+
+    private BufferedImage renderChunk(int cx, int cy, GraphicsConfiguration gc) {
+        if (cached >= MAX_CACHED) evictOldest();
+        BufferedImage img = gc != null
+                ? gc.createCompatibleImage(TileMap.CHUNK_PIXELS, TileMap.CHUNK_PIXELS)
+                : new BufferedImage(TileMap.CHUNK_PIXELS, TileMap.CHUNK_PIXELS, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = img.createGraphics();
+        int tx0 = cx * TileMap.CHUNK, ty0 = cy * TileMap.CHUNK;
+        for (int ty = 0; ty < TileMap.CHUNK; ty++) {
+            for (int tx = 0; tx < TileMap.CHUNK; tx++) {
+                boolean inside = tx0 + tx < map.widthTiles() && ty0 + ty < map.heightTiles();
+                g.setColor(inside ? PALETTE[map.tile(tx0 + tx, ty0 + ty) & 3] : Color.BLACK);
+                g.fillRect(tx * TileMap.TILE, ty * TileMap.TILE, TileMap.TILE, TileMap.TILE);
+            }
+        }
+        g.dispose();
+        cached++;
+        return img;
+    }
+
+    private void evictOldest() {
+        int oldest = -1;
+        for (int i = 0; i < images.length; i++) {
+            if (images[i] != null && (oldest < 0 || lastUsed[i] < lastUsed[oldest])) oldest = i;
+        }
+        images[oldest].flush();
+        images[oldest] = null;
+        cached--;
+    }
+}
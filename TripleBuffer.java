@@ -0,0 +1,44 @@
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free handoff of the latest value from one writer thread to one
+ * reader thread, using three preallocated slots.
+ *
+ * The writer fills its back slot and swaps it with the middle one; the
+ * reader swaps its front slot with the middle one whenever a newer value
+ * has been published. Each side owns its slot outright between swaps, so
+ * neither ever waits for the other, and the reader always gets the newest
+ * complete value (older unread ones are simply skipped).
+ */
+public class TripleBuffer<T> {
+    private static final int FRESH = 4; // set on the middle index when it holds an unread value
+
+    private final Object[] slots;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;  // writer's
+    private int front = 2; // reader's
+
+    public TripleBuffer(T a, T b, T c) {
+        slots = new Object[] {a, b, c};
+    }
+
+    // Writer: the slot to fill next
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) slots[back];
+    }
+
+    // Writer: make the filled back slot the latest value
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & ~FRESH;
+    }
+
+    // Reader: the newest published value (the same one again if nothing newer arrived)
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & ~FRESH;
+        }
+        return (T) slots[front];
+    }
+}
@@ -0,0 +1,101 @@
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics2D;
+import java.awt.GraphicsEnvironment;
+import java.awt.image.BufferedImage;
+
+/**
+ * Gets the JIT going while the start menu is up, so the first wave doesn't
+ * run the sim and paint paths in the interpreter.
+ *
+ * A low-priority background thread plays a throwaway headless game with the
+ * bot and a high spawn rate, and renders it into an offscreen image the way
+ * GamePanel does. It runs until its time budget is used up or a real game
+ * starts, whichever comes first.
+ */
+public class WarmUp {
+    static final long BUDGET_NANOS = 3_000_000_000L;
+    static final double BUSY_SPAWN_CHANCE = 0.3; // keeps plenty on screen for collision/chase/paint
+    static final int TICKS_PER_FRAME = 8;        // a frame costs far more than a tick; keep both getting hot
+
+    private static Thread thread;
+    private static volatile boolean stopRequested;
+
+    // what the last run got through, for the start-of-game report
+    static volatile long ticks, frames, elapsedNanos;
+    static volatile boolean finished;
+
+    public static synchronized void start() {
+        if (thread != null) return; // once per process: compiled code stays compiled
+        stopRequested = false;
+        thread = new Thread(WarmUp::run, "jit-warmup");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
+    }
+
+    // Called when a game starts; the warm-up shouldn't compete with it
+    public static void stop() {
+        stopRequested = true;
+    }
+
+    public static String summary() {
+        if (thread == null) return "warm-up not run";
+        return String.format("warm-up %s: %d ticks, %d frames in %.0f ms",
+                finished ? "finished" : "cut short", ticks, frames, elapsedNanos / 1e6);
+    }
+
+    private static void run() {
+        long start = System.nanoTime();
+        GameWorld world = new GameWorld(start);
+        world.setMap(TileMap.generate(64, 64, start));
+        world.reset(start);
+        world.spawnChance = BUSY_SPAWN_CHANCE;
+        world.events.subscribe(new GameStats());
+        BotController bot = new NearestThreatBot(4);
+        InputFrame input = new InputFrame();
+
+        RenderSystem renderer = new RenderSystem();
+        TileRenderer tiles = new TileRenderer();
+        Camera camera = new Camera(GameWorld.WIDTH, GameWorld.HEIGHT);
+        QualityGovernor quality = new QualityGovernor(16.0);
+        DebugOverlay overlay = new DebugOverlay();
+        overlay.toggle();
+        BufferedImage buffer = GraphicsEnvironment.isHeadless()
+                ? new BufferedImage(GameWorld.WIDTH, GameWorld.HEIGHT, BufferedImage.TYPE_INT_RGB)
+                : GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration().createCompatibleImage(GameWorld.WIDTH, GameWorld.HEIGHT);
+        BitmapFont hudFont = new BitmapFont(new Font("Arial", Font.BOLD, 20), Color.WHITE);
+
+        long t = 0, f = 0;
+        while (!stopRequested && System.nanoTime() - start < BUDGET_NANOS) {
+            if (world.gameOver) world.reset(System.nanoTime());
+            bot.control(world, input);
+            world.step(input);
+            if (++t % TICKS_PER_FRAME != 0) continue;
+
+            // same drawing calls as a GamePanel frame: tiles, entities, HUD text
+            Graphics2D g = buffer.createGraphics();
+            quality.applyHints(g);
+            camera.follow(world.playerCenterX(), world.playerCenterY(), world.arenaWidth, world.arenaHeight);
+            g.translate(-camera.x, -camera.y);
+            tiles.draw(g, world.map, camera, null);
+            renderer.draw(g, world, camera.x, camera.y, camera.width, camera.height);
+            g.translate(camera.x, camera.y);
+            hudFont.drawInt(g, world.score, hudFont.drawString(g, "Score: ", 10, 20), 20);
+            g.setColor(Color.WHITE);
+            g.fillRect(GameWorld.WIDTH - 170, 20, 150 * world.playerHealth() / world.playerMaxHealth(), 20);
+            overlay.begin(g, 10, 60);
+            overlay.text("Entities: ").number(world.enemyCount()).text(" enemies, ")
+                    .number(world.bulletCount()).text(" bullets").endLine();
+            overlay.text("Frame: ").fixed(elapsedNanos / 1e6 / Math.max(1, f), 2).text(" ms").endLine();
+            g.dispose();
+            f++;
+
+            ticks = t;
+            frames = f;
+            elapsedNanos = System.nanoTime() - start;
+        }
+        finished = !stopRequested;
+    }
+}
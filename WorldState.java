@@ -0,0 +1,39 @@
+/**
+ * Everything a GameWorld's future depends on, copied out so the world can
+ * be put back exactly: the entity store, the random generator, score,
+ * tick count and game-over flag. The map's awake area isn't kept; tick()
+ * works it out again from the player's position.
+ *
+ * capture() and restore() are plain array copies into storage that is
+ * reused from one capture to the next, so they don't allocate once the
+ * arrays have grown to the largest world seen.
+ */
+public class WorldState {
+    final Ecs.Snapshot ecs = new Ecs.Snapshot();
+    long random;
+    int player;
+    int score;
+    boolean gameOver;
+    long ticks;
+    int awakeEnemies;
+
+    public void capture(GameWorld world) {
+        world.ecs.save(ecs);
+        random = world.random.state();
+        player = world.player;
+        score = world.score;
+        gameOver = world.gameOver;
+        ticks = world.ticks;
+        awakeEnemies = world.awakeEnemies;
+    }
+
+    public void restore(GameWorld world) {
+        world.ecs.restore(ecs);
+        world.random.setSeed(random);
+        world.player = player;
+        world.score = score;
+        world.gameOver = gameOver;
+        world.ticks = ticks;
+        world.awakeEnemies = awakeEnemies;
+    }
+}